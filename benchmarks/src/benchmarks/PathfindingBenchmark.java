@@ -0,0 +1,249 @@
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import graphing.AStarSearch;
+import graphing.FlowField;
+import graphing.HierarchicalSearch;
+import graphing.JumpPointSearch;
+import graphing.Landmarks;
+import graphing.TileGraph;
+import graphing.WavefrontSearch;
+import levels.ProceduralMap;
+import levels.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for the zombie pathfinding. Boards are made with
+ * ProceduralMap.generateMap from a fixed seed, so every run searches the same
+ * boards, and the graph is built from the finished board the same way
+ * EntityManager.createGraph does for ZombieHouse3d. Only the graphing and
+ * levels packages are used, so no JavaFX stage has to be open.
+ *
+ * CalculatePath.findPath hands the actual work to one of the searches, so
+ * those are measured directly for three kinds of query:
+ * near - the player is a few tiles away, like a zombie that is chasing.
+ * far - the player is anywhere on the board, like the master zombie.
+ * unreachable - the player can't be reached, so the whole board is searched.
+ *
+ * Each benchmark is run for throughput and for the time of single calls,
+ * which gives the latency percentiles. Running main also turns on the GC
+ * profiler, which reports the allocation rate (gc.alloc.rate.norm is the
+ * number of bytes allocated per search).
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathfindingBenchmark
+{
+  // The number of queries cycled through by each benchmark.
+  private static final int NUM_QUERIES = 256;
+  // The furthest away the player is for the near queries.
+  private static final int NEAR_DISTANCE = 8;
+  // The limits the zombies use for the bounded search, from Attributes.
+  private static final int SMELL_LENGTH = 15;
+  private static final int NODE_BUDGET = 500;
+  // The seed every board is made from.
+  private static final long SEED = 1;
+
+  @Param({"40", "100", "250", "500"})
+  public int boardSize;
+
+  @Param({"near", "far", "unreachable"})
+  public String target;
+
+  private TileGraph graph;
+  private AStarSearch aStarSearch;
+  private AStarSearch landmarkSearch;
+  private JumpPointSearch jumpPointSearch;
+  private HierarchicalSearch hierarchicalSearch;
+  private FlowField flowField;
+  private WavefrontSearch wavefrontSearch;
+
+  private final int[] from = new int[NUM_QUERIES];
+  private final int[] to = new int[NUM_QUERIES];
+  private int next = 0;
+
+  /**
+   * Builds the board, the graph and the searches, and picks the queries.
+   */
+  @Setup(Level.Trial)
+  public void createBoard()
+  {
+    Random random = new Random(SEED);
+    Tile[][] gameBoard = ProceduralMap.generateMap(boardSize, boardSize, 2, random);
+    // The corner of the border is always surrounded by walls, so opening it
+    // up gives a tile that can't be reached from anywhere else.
+    if (target.equals("unreachable"))
+    {
+      gameBoard[0][0].isWall = false;
+    }
+    graph = new TileGraph(gameBoard);
+    aStarSearch = new AStarSearch(graph);
+    landmarkSearch = new AStarSearch(graph);
+    landmarkSearch.setLandmarks(new Landmarks(graph, gameBoard));
+    jumpPointSearch = new JumpPointSearch(graph);
+    hierarchicalSearch = new HierarchicalSearch(graph, gameBoard);
+    flowField = new FlowField(graph);
+    wavefrontSearch = new WavefrontSearch(graph);
+
+    for (int i = 0; i < NUM_QUERIES; i++)
+    {
+      from[i] = randomWalkableTile(random);
+      if (target.equals("unreachable"))
+      {
+        to[i] = graph.getId(0, 0);
+      }
+      else if (target.equals("near"))
+      {
+        to[i] = nearbyTile(from[i], random);
+      }
+      else
+      {
+        to[i] = randomWalkableTile(random);
+      }
+    }
+  }
+
+  private int randomWalkableTile(Random random)
+  {
+    int id;
+    do
+    {
+      id = random.nextInt(graph.size());
+    }
+    while (!graph.isWalkable(id) || graph.getMoves(id) == 0);
+    return id;
+  }
+
+  /**
+   * Picks a tile that can be reached within NEAR_DISTANCE moves by walking
+   * randomly from the given tile.
+   */
+  private int nearbyTile(int start, Random random)
+  {
+    int id = start;
+    for (int i = 0; i < NEAR_DISTANCE; i++)
+    {
+      int moves = graph.getMoves(id);
+      int skip = random.nextInt(Integer.bitCount(moves));
+      for (int j = 0; j < skip; j++)
+      {
+        moves &= moves - 1;
+      }
+      id = graph.getNeighbor(id, TileGraph.nextMove(moves));
+    }
+    return id;
+  }
+
+  private int nextQuery()
+  {
+    next = (next + 1) % NUM_QUERIES;
+    return next;
+  }
+
+  @Benchmark
+  public int aStar()
+  {
+    int query = nextQuery();
+    int length = aStarSearch.findPath(from[query], to[query]);
+    return length + aStarSearch.getFirstStep();
+  }
+
+  @Benchmark
+  public int aStarLandmarks()
+  {
+    int query = nextQuery();
+    int length = landmarkSearch.findPath(from[query], to[query]);
+    return length + landmarkSearch.getFirstStep();
+  }
+
+  /**
+   * The bounded search the zombies use to check if they can smell the player.
+   */
+  @Benchmark
+  public int aStarWithinSmell()
+  {
+    int query = nextQuery();
+    int length = aStarSearch.findPathWithin(from[query], to[query], SMELL_LENGTH, NODE_BUDGET);
+    return length + aStarSearch.getExpansions();
+  }
+
+  @Benchmark
+  public int jumpPoint()
+  {
+    int query = nextQuery();
+    int length = jumpPointSearch.findPath(from[query], to[query]);
+    return length + jumpPointSearch.getFirstStep();
+  }
+
+  @Benchmark
+  public int hierarchical()
+  {
+    int query = nextQuery();
+    int length = hierarchicalSearch.findPath(from[query], to[query]);
+    return length + hierarchicalSearch.getFirstStep();
+  }
+
+  /**
+   * Whole board distances from the player with a breadth first search.
+   */
+  @Benchmark
+  public int flowField()
+  {
+    int query = nextQuery();
+    flowField.update(to[query]);
+    return flowField.getPathLength(from[query]);
+  }
+
+  /**
+   * The same distances as flowField, found 64 tiles at a time.
+   */
+  @Benchmark
+  public int wavefrontFill()
+  {
+    int query = nextQuery();
+    wavefrontSearch.fill(to[query]);
+    return wavefrontSearch.getDistance(from[query]);
+  }
+
+  /**
+   * Checking if the player can be reached at all, 64 tiles at a time.
+   */
+  @Benchmark
+  public boolean wavefrontConnected()
+  {
+    int query = nextQuery();
+    return wavefrontSearch.isConnected(from[query], to[query]);
+  }
+
+  /**
+   * Runs every benchmark in this class with the GC profiler turned on.
+   *
+   * @param args Not used.
+   * @throws RunnerException If JMH can't run the benchmarks.
+   */
+  public static void main(String[] args) throws RunnerException
+  {
+    new Runner(new OptionsBuilder().include(PathfindingBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build()).run();
+  }
+}
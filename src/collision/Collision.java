@@ -0,0 +1,153 @@
+package collision;
+
+/**
+ * Collision tests on the floor of the board, done with plain math instead of
+ * the bounds of JavaFX shapes. Everything that collides in the game is either
+ * a circle (the player, the zombies and the chainsaw) or a box that lines up
+ * with the tiles (walls and exits), so these few tests cover all of it. None
+ * of them make any objects, so they can be called as often as needed every
+ * frame.
+ *
+ * Positions are x and z on the floor. A box is given by its smallest and
+ * largest x and z.
+ */
+public final class Collision
+{
+  private Collision()
+  {
+  }
+
+  /**
+   * Checks if a circle overlaps a box, by finding the point in the box that
+   * is closest to the center of the circle.
+   *
+   * @param x      The x position of the center of the circle.
+   * @param z      The z position of the center of the circle.
+   * @param radius The radius of the circle.
+   * @param minX   The smallest x of the box.
+   * @param minZ   The smallest z of the box.
+   * @param maxX   The largest x of the box.
+   * @param maxZ   The largest z of the box.
+   * @return True if they overlap. Only touching doesn't count.
+   */
+  public static boolean circleIntersectsBox(double x, double z, double radius, double minX, double minZ, double maxX, double maxZ)
+  {
+    double deltaX = x - Math.max(minX, Math.min(x, maxX));
+    double deltaZ = z - Math.max(minZ, Math.min(z, maxZ));
+    return deltaX * deltaX + deltaZ * deltaZ < radius * radius;
+  }
+
+  /**
+   * Checks if two circles overlap.
+   *
+   * @param x1      The x position of the center of the first circle.
+   * @param z1      The z position of the center of the first circle.
+   * @param radius1 The radius of the first circle.
+   * @param x2      The x position of the center of the second circle.
+   * @param z2      The z position of the center of the second circle.
+   * @param radius2 The radius of the second circle.
+   * @return True if they overlap. Only touching doesn't count.
+   */
+  public static boolean circleIntersectsCircle(double x1, double z1, double radius1, double x2, double z2, double radius2)
+  {
+    double deltaX = x2 - x1;
+    double deltaZ = z2 - z1;
+    double radii = radius1 + radius2;
+    return deltaX * deltaX + deltaZ * deltaZ < radii * radii;
+  }
+
+  /**
+   * Checks if a circle overlaps a cone on the floor, which is the part of a
+   * circle around the tip of the cone that is within an angle of the way it
+   * points. The circle overlaps if it is within reach of the tip and the
+   * angle to its center is no more than the cone's half angle plus the angle
+   * the circle covers as seen from the tip.
+   *
+   * @param x          The x position of the center of the circle.
+   * @param z          The z position of the center of the circle.
+   * @param radius     The radius of the circle.
+   * @param tipX       The x position of the tip of the cone.
+   * @param tipZ       The z position of the tip of the cone.
+   * @param directionX The x of the way the cone points. Must be 1 long
+   *                   together with directionZ.
+   * @param directionZ The z of the way the cone points.
+   * @param range      How far the cone reaches from its tip.
+   * @param halfAngle  The angle from the middle of the cone to its edge, in
+   *                   radians.
+   * @return True if they overlap. Only touching doesn't count.
+   */
+  public static boolean circleIntersectsCone(double x, double z, double radius, double tipX, double tipZ,
+                                             double directionX, double directionZ, double range, double halfAngle)
+  {
+    double deltaX = x - tipX;
+    double deltaZ = z - tipZ;
+    double distanceSquared = deltaX * deltaX + deltaZ * deltaZ;
+    double reach = range + radius;
+    if (distanceSquared >= reach * reach)
+    {
+      return false;
+    }
+    if (distanceSquared < radius * radius)
+    {
+      return true;
+    }
+    double distance = Math.sqrt(distanceSquared);
+    double cosine = (deltaX * directionX + deltaZ * directionZ) / distance;
+    double angle = Math.acos(Math.max(-1, Math.min(1, cosine)));
+    return angle < halfAngle + Math.asin(radius / distance);
+  }
+
+  /**
+   * Checks if a line segment passes through a box. The segment is clipped to
+   * the box one axis at a time (the slab method), and it hits the box if
+   * anything is left of it.
+   *
+   * @param startX The x position of the start of the segment.
+   * @param startZ The z position of the start of the segment.
+   * @param endX   The x position of the end of the segment.
+   * @param endZ   The z position of the end of the segment.
+   * @param minX   The smallest x of the box.
+   * @param minZ   The smallest z of the box.
+   * @param maxX   The largest x of the box.
+   * @param maxZ   The largest z of the box.
+   * @return True if any part of the segment is inside the box or on its edge.
+   */
+  public static boolean segmentIntersectsBox(double startX, double startZ, double endX, double endZ, double minX, double minZ, double maxX, double maxZ)
+  {
+    double enter = 0;
+    double exit = 1;
+    double deltaX = endX - startX;
+    double deltaZ = endZ - startZ;
+
+    if (deltaX == 0)
+    {
+      if (startX < minX || startX > maxX)
+      {
+        return false;
+      }
+    }
+    else
+    {
+      double t1 = (minX - startX) / deltaX;
+      double t2 = (maxX - startX) / deltaX;
+      enter = Math.max(enter, Math.min(t1, t2));
+      exit = Math.min(exit, Math.max(t1, t2));
+    }
+
+    if (deltaZ == 0)
+    {
+      if (startZ < minZ || startZ > maxZ)
+      {
+        return false;
+      }
+    }
+    else
+    {
+      double t1 = (minZ - startZ) / deltaZ;
+      double t2 = (maxZ - startZ) / deltaZ;
+      enter = Math.max(enter, Math.min(t1, t2));
+      exit = Math.min(exit, Math.max(t1, t2));
+    }
+    return enter <= exit;
+  }
+}
@@ -0,0 +1,193 @@
+package entities;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import game_engine.Attributes;
+import graphing.AStarSearch;
+import graphing.Heading;
+import graphing.HierarchicalSearch;
+import graphing.JumpPointSearch;
+import graphing.Landmarks;
+import graphing.TileGraph;
+import levels.Tile;
+
+/**
+ * Runs the zombie path searches on a small pool of worker threads so that a
+ * long search can't hold up the game loop. The workers only read the
+ * TileGraph, which never changes once it is built, and every worker thread
+ * has its own searches, so no search state is shared between threads.
+ *
+ * A finished search is put in a lock-free mailbox as a PathResult. The game
+ * loop takes them out at the start of EntityManager.tick() and hands the new
+ * heading and path length to the zombie, so zombies are only ever changed on
+ * the game thread. Each zombie has at most one search waiting at a time, and
+ * if the pool's queue is full the request is dropped and the zombie keeps
+ * its last heading until it asks again.
+ */
+class AsyncPathfinder
+{
+  private static final int QUEUE_SIZE = 64;
+
+  private final TileGraph graph;
+  private final ThreadPoolExecutor workers;
+  private final ConcurrentLinkedQueue<PathResult> mailbox = new ConcurrentLinkedQueue<>();
+
+  // The searches belonging to each worker thread. They are only made the
+  // first time a worker needs them.
+  private final ThreadLocal<AStarSearch> pathSearch;
+  private final ThreadLocal<JumpPointSearch> jumpPointSearch;
+  private final ThreadLocal<HierarchicalSearch> hierarchicalSearch;
+
+  /**
+   * @param graph     The graph of the finished board.
+   * @param gameBoard The board the graph was built from.
+   * @param landmarks The landmarks for the A* searches, or null.
+   */
+  AsyncPathfinder(TileGraph graph, Tile[][] gameBoard, Landmarks landmarks)
+  {
+    this.graph = graph;
+    pathSearch = ThreadLocal.withInitial(() ->
+    {
+      AStarSearch search = new AStarSearch(graph);
+      search.setLandmarks(landmarks);
+      return search;
+    });
+    jumpPointSearch = ThreadLocal.withInitial(() -> new JumpPointSearch(graph));
+    hierarchicalSearch = ThreadLocal.withInitial(() -> new HierarchicalSearch(graph, gameBoard));
+    int numThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    workers = new ThreadPoolExecutor(numThreads, numThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_SIZE), runnable ->
+    {
+      Thread thread = new Thread(runnable, "Pathfinding worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Asks for a path from a zombie to the player to be found on one of the
+   * workers. Nothing is done if the zombie is still waiting on its last one.
+   *
+   * @param calcPath  The CalculatePath of the zombie asking.
+   * @param from      The id of the tile the zombie is on.
+   * @param to        The id of the tile the player is on.
+   * @param master    True if the zombie is the master zombie.
+   * @param maxLength The longest path the zombie cares about, or
+   *                  Integer.MAX_VALUE if it needs the path however long it is.
+   */
+  void submit(CalculatePath calcPath, int from, int to, boolean master, int maxLength)
+  {
+    if (!calcPath.pathPending.compareAndSet(false, true))
+    {
+      return;
+    }
+    boolean hierarchical = master && Attributes.Zombie_Hierarchical_Master;
+    boolean jumpPoint = Attributes.Zombie_Jump_Point_Search;
+    try
+    {
+      workers.execute(() ->
+      {
+        try
+        {
+          mailbox.add(search(calcPath, from, to, hierarchical, jumpPoint, maxLength));
+        }
+        catch (RuntimeException e)
+        {
+          // Still answer so the zombie isn't left waiting forever.
+          mailbox.add(new PathResult(calcPath, from, AStarSearch.NO_PATH, null));
+          e.printStackTrace();
+        }
+      });
+    }
+    catch (RejectedExecutionException e)
+    {
+      calcPath.pathPending.set(false);
+    }
+  }
+
+  /**
+   * Runs on a worker thread.
+   */
+  private PathResult search(CalculatePath calcPath, int from, int to, boolean hierarchical, boolean jumpPoint, int maxLength)
+  {
+    int pathLength;
+    int firstStep;
+    if (hierarchical)
+    {
+      HierarchicalSearch search = hierarchicalSearch.get();
+      pathLength = search.findPath(from, to);
+      firstStep = search.getFirstStep();
+    }
+    else if (maxLength != Integer.MAX_VALUE)
+    {
+      AStarSearch search = pathSearch.get();
+      pathLength = search.findPathWithin(from, to, maxLength, Attributes.Path_Node_Budget);
+      firstStep = search.getFirstStep();
+    }
+    else if (jumpPoint)
+    {
+      JumpPointSearch search = jumpPointSearch.get();
+      pathLength = search.findPath(from, to);
+      firstStep = search.getFirstStep();
+    }
+    else
+    {
+      AStarSearch search = pathSearch.get();
+      pathLength = search.findPath(from, to);
+      firstStep = search.getFirstStep();
+    }
+    Heading heading = null;
+    if (firstStep != AStarSearch.NO_PATH)
+    {
+      heading = new Heading(graph.getCol(firstStep) - graph.getCol(from), graph.getRow(firstStep) - graph.getRow(from));
+    }
+    return new PathResult(calcPath, from, pathLength, heading);
+  }
+
+  /**
+   * Hands every finished search in the mailbox to its zombie. This has to be
+   * called on the game thread.
+   */
+  void deliverResults()
+  {
+    PathResult result = mailbox.poll();
+    while (result != null)
+    {
+      result.calcPath.pathPending.set(false);
+      result.calcPath.applyPathResult(result.from, result.pathLength, result.heading);
+      result = mailbox.poll();
+    }
+  }
+
+  /**
+   * Stops the workers. Any searches that haven't finished yet are thrown
+   * away.
+   */
+  void shutdown()
+  {
+    workers.shutdownNow();
+    mailbox.clear();
+  }
+
+  /**
+   * The answer to one path request.
+   */
+  private static class PathResult
+  {
+    final CalculatePath calcPath;
+    final int from;
+    final int pathLength;
+    final Heading heading;
+
+    PathResult(CalculatePath calcPath, int from, int pathLength, Heading heading)
+    {
+      this.calcPath = calcPath;
+      this.from = from;
+      this.pathLength = pathLength;
+      this.heading = heading;
+    }
+  }
+}
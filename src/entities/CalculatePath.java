@@ -1,14 +1,17 @@
 package entities;
 
-import graphing.GraphNode;
+import game_engine.Attributes;
+import graphing.AStarSearch;
+import graphing.DStarLite;
+import graphing.FlowField;
 import graphing.Heading;
-import graphing.NodeComparator;
 import graphing.TileGraph;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import levels.Tile;
 import utilities.ZombieBoardRenderer;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author Jeffrey McCall This class is used for zombie pathfinding to find
@@ -20,17 +23,38 @@ class CalculatePath
   private Zombie zombie;
 
   ArrayList<Circle> oldPath = new ArrayList<>();
-  private Comparator<GraphNode> comparator = new NodeComparator();
-  private PriorityQueue<GraphNode> priorityQueue = new PriorityQueue<>(1, comparator);
-  private LinkedHashMap<Tile, Tile> cameFrom = new LinkedHashMap<>();
-  private LinkedHashMap<Tile, Double> costSoFar = new LinkedHashMap<>();
 
   int distanceToPlayer;
   private int lastPathSize = 0;
-  private Tile end;
 
   boolean twoD = false;
 
+  // This zombie's own incremental search, made when it starts chasing the
+  // player and thrown away when it stops.
+  private DStarLite incrementalSearch;
+
+  /**
+   * Which search a path was found with, so the 2D board draws the path out
+   * of the same search that found it.
+   */
+  private enum PathSource
+  {
+    FLOW_FIELD, HIERARCHICAL, INCREMENTAL, JUMP_POINT, A_STAR
+  }
+
+  // Set while a search for this zombie is waiting on the AsyncPathfinder.
+  final AtomicBoolean pathPending = new AtomicBoolean(false);
+  // The tile the zombie was on the last time it asked for a path.
+  private int currentTile = TileGraph.NO_TILE;
+
+  // The search this zombie is waiting on in the PathScheduler.
+  boolean scheduled = false;
+  int requestFrom = TileGraph.NO_TILE;
+  int requestTo = TileGraph.NO_TILE;
+  int schedulePriority;
+  // The frame of the PathScheduler this zombie last had a search run on.
+  int lastSearchFrame = 0;
+
   CalculatePath(EntityManager entityManager, Zombie zombie)
   {
     this.entityManager = entityManager;
@@ -38,227 +62,265 @@ class CalculatePath
   }
 
   /**
-   * This method implements the A* algorithm to find the shortest distance
-   * between the zombie and the player. I based my implementation on Justin
-   * Hall's A* pathfinding program posted on the CS 351 website,
+   * This method finds the shortest distance between the zombie and the
+   * player. I based my original A* implementation on Justin Hall's A*
+   * pathfinding program posted on the CS 351 website,
    * https://www.cs.unm.edu/~joel/cs351/. His implementation was itself based
    * on the implementation found on the website
-   * http://www.redblobgames.com/pathfinding/a-star/introduction.html.
+   * http://www.redblobgames.com/pathfinding/a-star/introduction.html. The
+   * search itself is done by the AStarSearch that is shared by every zombie
+   * on the board, so no maps or lists are built up for each search. If
+   * Zombie_Jump_Point_Search is set, the JumpPointSearch is used instead,
+   * which finds paths of the same length. The master zombie, which can chase
+   * the player from anywhere on the board, uses the HierarchicalSearch that
+   * plans from room to room unless Zombie_Hierarchical_Master is turned off.
+   * If Zombie_Incremental_Search is set, every other zombie that is chasing
+   * the player keeps its own DStarLite search between calls and only repairs
+   * it when the player moves. Otherwise, if Zombie_Bounded_Search or
+   * Zombie_Incremental_Search is set, the other zombies only look
+   * for paths no longer than zombieSmell, expanding at most Path_Node_Budget
+   * tiles, since they won't chase the player if the path is any longer. A
+   * player that is further away than that is treated like one that can't be
+   * reached. With Zombie_Path_Cache set, the answers of these searches are
+   * kept in the PathCache, so zombies asking the same question on the same
+   * frame only cause one search.
+   * If the flow field is turned on, no search is done at all and the
+   * distance and next step are looked up in the flow field that is rooted at
+   * the player. Otherwise, if Zombie_Async_Pathfinding is set, the search is
+   * handed to the AsyncPathfinder instead and the answer is applied by
+   * applyPathResult on a later tick, so until then the zombie keeps its last
+   * heading and distance. The flow field and the incremental search are kept
+   * on the game loop even then, since they are cheap there and keep state
+   * between ticks that the workers don't have.
+   *
+   * If Zombie_Path_Scheduler is set, the search isn't done right away. It is
+   * handed to the PathScheduler, which runs as many of the waiting searches
+   * as fit in the frame's budget once every zombie has moved.
    *
-   * @param from       The tile the zombie is at.
-   * @param to         The tile the player is at.
-   * @param zombieNode The node on the graph that represents the location of the
-   *                   zombie.
+   * @param from The id of the tile on the graph where the zombie is.
+   * @param to   The id of the tile on the graph where the player is.
    */
-  void findPath(Tile from, Tile to, GraphNode zombieNode)
+  void findPath(int from, int to)
   {
-    double newCost;
-    double priority;
-
-    if (from != null && to != null)
+    currentTile = from;
+    if (Attributes.Zombie_Path_Scheduler)
     {
-      end = to;
-      priorityQueue.add(zombieNode);
-      costSoFar.put(from, 0.0);
-      cameFrom.put(from, null);
-      while (!priorityQueue.isEmpty())
-      {
-        GraphNode currentNode = priorityQueue.peek();
-        Tile current = priorityQueue.poll().nodeTile;
-        if (current.equals(to))
-        {
-          break;
-        }
-        for (Tile neighbor : currentNode.neighbors)
-        {
-          if (costSoFar.get(current) != null)
-          {
-            newCost = costSoFar.get(current) + neighbor.movementCost;
-            if ((!costSoFar.containsKey(neighbor) || newCost < costSoFar.get(neighbor)) && !checkNeighbors(current, neighbor, currentNode))
-            {
-              costSoFar.put(neighbor, newCost);
-              priority = newCost + findDistance(neighbor, to);
-              GraphNode nextNode = TileGraph.getNode(neighbor);
-              nextNode.priority = priority;
-              priorityQueue.add(nextNode);
-              cameFrom.put(neighbor, current);
-            }
-          }
-        }
-      }
-    }
-    distanceToPlayer = getPathLength(cameFrom, to);
-    if (twoD)
-    {
-      drawPath();
+      entityManager.pathScheduler.request(this, from, to);
+      return;
     }
-    cameFrom.clear();
-    priorityQueue.clear();
-    costSoFar.clear();
+    runSearch(from, to);
   }
 
   /**
-   * This method is used with A* to check if a tile is next to a wall. If it
-   * is, and there is the possibility of diagonal movement to either side of
-   * that wall, then we want to make it so that the path doesn't go in the
-   * diagonal direction, and can only go to the tiles on either side of the
-   * current tile. We are doing this since movement in the diagonal direction
-   * would mean that the zombie would be trying to move through a wall.
+   * Does the search that findPath describes right away.
    *
-   * @param current     The current tile we are evaluating for pathfinding.
-   * @param neighbor    The neighboring tile of the current tile.
-   * @param currentNode The current node in the tile graph that is being evaluated.
-   * @return True if the neighbor is a diagonal tile and the current tile is
-   * against a wall. False otherwise.
+   * @param from The id of the tile on the graph where the zombie is.
+   * @param to   The id of the tile on the graph where the player is.
    */
-  private boolean checkNeighbors(Tile current, Tile neighbor, GraphNode currentNode)
+  void runSearch(int from, int to)
   {
-    if (!twoD)
+    if (useAsyncSearch())
     {
-      if (currentNode.wallToRight)
-      {
-        if (neighbor.equals(entityManager.zombieHouse.getGameBoard()[current.col - 1][current.row - 1]))
-        {
-          return true;
-        }
-        if (neighbor.equals(entityManager.zombieHouse.getGameBoard()[current.col + 1][current.row - 1]))
-        {
-          return true;
-        }
-      }
-      if (currentNode.wallToLeft)
-      {
-        if (neighbor.equals(entityManager.zombieHouse.getGameBoard()[current.col - 1][current.row + 1]))
-        {
-          return true;
-        }
-        if (neighbor.equals(entityManager.zombieHouse.getGameBoard()[current.col + 1][current.row + 1]))
-        {
-          return true;
-        }
-      }
-      if (currentNode.wallOnBottom)
-      {
-        if (neighbor.equals(entityManager.zombieHouse.getGameBoard()[current.col + 1][current.row - 1]))
-        {
-          return true;
-        }
-        if (neighbor.equals(entityManager.zombieHouse.getGameBoard()[current.col + 1][current.row + 1]))
-        {
-          return true;
-        }
-      }
-      if (currentNode.wallOnTop)
-      {
-        if (neighbor.equals(entityManager.zombieHouse.getGameBoard()[current.col - 1][current.row + 1]))
-        {
-          return true;
-        }
-        if (neighbor.equals(entityManager.zombieHouse.getGameBoard()[current.col - 1][current.row - 1]))
-        {
-          return true;
-        }
-      }
+      int maxLength = useBoundedSearch() ? (int) zombie.zombieSmell : Integer.MAX_VALUE;
+      entityManager.asyncPathfinder.submit(this, from, to, zombie.isMasterZombie, maxLength);
+      return;
+    }
+    int pathLength;
+    int firstStep;
+    PathSource source = PathSource.A_STAR;
+    if (Attributes.Zombie_Flow_Field)
+    {
+      FlowField flowField = entityManager.getFlowField(to);
+      pathLength = flowField.getPathLength(from);
+      firstStep = flowField.getNextStep(from);
+      source = PathSource.FLOW_FIELD;
+    }
+    else if (useHierarchicalSearch())
+    {
+      pathLength = entityManager.hierarchicalSearch.findPath(from, to);
+      firstStep = entityManager.hierarchicalSearch.getFirstStep();
+      source = PathSource.HIERARCHICAL;
+    }
+    else if (useIncrementalSearch())
+    {
+      pathLength = getIncrementalSearch().findPath(from, to);
+      firstStep = incrementalSearch.getFirstStep();
+      source = PathSource.INCREMENTAL;
+    }
+    else if (useCache() && entityManager.pathCache.lookup(from, to))
+    {
+      pathLength = entityManager.pathCache.getPathLength();
+      firstStep = entityManager.pathCache.getFirstStep();
     }
     else
     {
-      if (currentNode.wallToRight)
+      if (useBoundedSearch())
       {
-        if (neighbor.equals(ZombieBoardRenderer.gameBoard[current.col - 1][current.row + 1]))
-        {
-          return true;
-        }
-        if (neighbor.equals(ZombieBoardRenderer.gameBoard[current.col + 1][current.row + 1]))
-        {
-          return true;
-        }
+        pathLength = entityManager.pathSearch.findPathWithin(from, to, (int) zombie.zombieSmell, Attributes.Path_Node_Budget);
+        firstStep = entityManager.pathSearch.getFirstStep();
       }
-      if (currentNode.wallToLeft)
+      else if (Attributes.Zombie_Jump_Point_Search)
       {
-        if (neighbor.equals(ZombieBoardRenderer.gameBoard[current.col - 1][current.row - 1]))
-        {
-          return true;
-        }
-        if (neighbor.equals(ZombieBoardRenderer.gameBoard[current.col + 1][current.row - 1]))
-        {
-          return true;
-        }
+        pathLength = entityManager.jumpPointSearch.findPath(from, to);
+        firstStep = entityManager.jumpPointSearch.getFirstStep();
+        source = PathSource.JUMP_POINT;
       }
-      if (currentNode.wallOnBottom)
+      else
       {
-        if (neighbor.equals(ZombieBoardRenderer.gameBoard[current.col + 1][current.row - 1]))
-        {
-          return true;
-        }
-        if (neighbor.equals(ZombieBoardRenderer.gameBoard[current.col + 1][current.row + 1]))
-        {
-          return true;
-        }
+        pathLength = entityManager.pathSearch.findPath(from, to);
+        firstStep = entityManager.pathSearch.getFirstStep();
       }
-      if (currentNode.wallOnTop)
+      if (useCache())
       {
-        if (neighbor.equals(ZombieBoardRenderer.gameBoard[current.col - 1][current.row + 1]))
-        {
-          return true;
-        }
-        if (neighbor.equals(ZombieBoardRenderer.gameBoard[current.col - 1][current.row - 1]))
-        {
-          return true;
-        }
+        entityManager.pathCache.store(from, to, pathLength, firstStep);
       }
     }
-    return false;
+    if (pathLength == AStarSearch.NO_PATH || pathLength == AStarSearch.OUT_OF_RANGE)
+    {
+      distanceToPlayer = 30;
+      return;
+    }
+    distanceToPlayer = pathLength;
+    if (firstStep != AStarSearch.NO_PATH && zombie.findNewPath.get())
+    {
+      calculateHeadings(from, firstStep, entityManager.tileGraph);
+    }
+    if (twoD)
+    {
+      drawPath(source, from, to);
+    }
   }
 
   /**
-   * Get length of path between player and zombie. We do this since the zombie
-   * only goes after the player in the case of the shortest path length being
-   * less than 15. The way I structured this was partially inspired by code from
-   * Justin Hall's A* pathfinding program from his "printPath" method. This code is
-   * from the CS 351 website:
-   * https://www.cs.unm.edu/~joel/cs351/
+   * Applies a path that was found by the AsyncPathfinder. The heading is only
+   * used if the zombie is still on the tile the search started from.
    *
-   * @param cameFrom The map that represents the shortest path that was found to get
-   *                 to the player.
-   * @param end      The ending tile in the path. This is where the player is.
-   * @return The length of the shortest path to the player.
+   * @param from       The id of the tile the search started from.
+   * @param pathLength The number of tiles on the path, or NO_PATH.
+   * @param heading    The heading towards the next tile on the path, or null
+   *                   if there isn't one.
    */
-  private int getPathLength(LinkedHashMap<Tile, Tile> cameFrom, Tile end)
+  void applyPathResult(int from, int pathLength, Heading heading)
   {
-    int counter;
-    LinkedList<Tile> path = new LinkedList<>();
-    Tile curr = end;
-    while (curr != null)
+    if (pathLength == AStarSearch.NO_PATH || pathLength == AStarSearch.OUT_OF_RANGE)
     {
-      path.addFirst(curr);
-      curr = cameFrom.get(curr);
+      distanceToPlayer = 30;
+      return;
     }
-    if (path.size() >= 2 && zombie.findNewPath.get())
+    distanceToPlayer = pathLength;
+    if (heading != null && from == currentTile && zombie.findNewPath.get())
     {
-      calculateHeadings(path.get(0), path.get(1));
+      zombie.setZombieHeading(heading);
     }
-    counter = path.size();
-    return counter;
+  }
+
+  private boolean useHierarchicalSearch()
+  {
+    return zombie.isMasterZombie && Attributes.Zombie_Hierarchical_Master;
+  }
+
+  /**
+   * The flow field and the incremental search come before the worker threads,
+   * so only the searches that start over every time are handed to them. The
+   * master zombie's hierarchical search comes before the incremental search.
+   */
+  private boolean useAsyncSearch()
+  {
+    return Attributes.Zombie_Async_Pathfinding && !Attributes.Zombie_Flow_Field
+        && (useHierarchicalSearch() || !useIncrementalSearch());
+  }
+
+  /**
+   * Each incremental search is as big as the board, so only the zombies that
+   * are chasing the player use one. The rest only need to know if the player
+   * is within zombieSmell, which the bounded search answers.
+   */
+  private boolean useIncrementalSearch()
+  {
+    return Attributes.Zombie_Incremental_Search && zombie.goingAfterPlayer.get();
+  }
+
+  /**
+   * Throws away the zombie's incremental search once it stops chasing the
+   * player, so its arrays can be freed.
+   */
+  void stopChasing()
+  {
+    incrementalSearch = null;
+  }
+
+  /**
+   * Only the searches shared by the ordinary zombies are cached. The 2D board
+   * draws the path out of the search itself, so it always does the search.
+   */
+  private boolean useCache()
+  {
+    return Attributes.Zombie_Path_Cache && !zombie.isMasterZombie && !twoD;
+  }
+
+  /**
+   * The master zombie can chase the player from anywhere, so it always needs
+   * the whole path and never uses the bounded search. With the incremental
+   * search on, the zombies that aren't chasing yet use the bounded search.
+   */
+  private boolean useBoundedSearch()
+  {
+    return !zombie.isMasterZombie && (Attributes.Zombie_Bounded_Search || Attributes.Zombie_Incremental_Search);
+  }
+
+  /**
+   * Gets this zombie's incremental search, making a new one if there isn't one
+   * yet or the board has changed since it was made.
+   *
+   * @return The incremental search for this zombie.
+   */
+  private DStarLite getIncrementalSearch()
+  {
+    if (incrementalSearch == null || incrementalSearch.getGraph() != entityManager.tileGraph)
+    {
+      incrementalSearch = new DStarLite(entityManager.tileGraph);
+    }
+    return incrementalSearch;
   }
 
   /**
    * When 2D board is being displayed, draw the paths from each zombie to the
    * player on the screen.
+   *
+   * @param source The search the path was found with by runSearch.
+   * @param start  The starting tile in the path. This is where the zombie is.
+   * @param end    The ending tile in the path. This is where the player is.
    */
-  private void drawPath()
+  private void drawPath(PathSource source, int start, int end)
   {
-    LinkedList<Tile> path = new LinkedList<>();
     ArrayList<Circle> circles = new ArrayList<>();
-    Tile curr = end;
-    while (curr != null)
-    {
-      path.addFirst(curr);
-      curr = cameFrom.get(curr);
-    }
-    for (Tile n : path)
+    // The flow field is read forwards from the zombie, and the searches
+    // backwards from the player.
+    int curr = source == PathSource.FLOW_FIELD ? start : end;
+    FlowField flowField = source == PathSource.FLOW_FIELD ? entityManager.getFlowField(end) : null;
+    while (curr != AStarSearch.NO_PATH)
     {
+      Tile n = ZombieBoardRenderer.gameBoard[entityManager.tileGraph.getRow(curr)][entityManager.tileGraph.getCol(curr)];
       Circle pathCircle = new Circle(n.xPos * ZombieBoardRenderer.cellSize, n.zPos * ZombieBoardRenderer.cellSize, 2, Color.WHITE);
       circles.add(pathCircle);
+      switch (source)
+      {
+        case FLOW_FIELD:
+          curr = flowField.getNextStep(curr);
+          break;
+        case HIERARCHICAL:
+          curr = entityManager.hierarchicalSearch.getCameFrom(curr);
+          break;
+        case INCREMENTAL:
+          curr = incrementalSearch.getCameFrom(curr);
+          break;
+        case JUMP_POINT:
+          curr = entityManager.jumpPointSearch.getCameFrom(curr);
+          break;
+        default:
+          curr = entityManager.pathSearch.getCameFrom(curr);
+          break;
+      }
     }
     if (lastPathSize != 0)
     {
@@ -279,30 +341,17 @@ class CalculatePath
     ZombieBoardRenderer.root.getChildren().removeAll(oldPath);
   }
 
-  /**
-   * Finds the Manhattan distance between a certain location on the map and
-   * the player's location. This is based on code from:
-   * http://www.redblobgames.com/pathfinding/a-star/introduction.html
-   *
-   * @param tile1 The first location.
-   * @param tile2 The location of the player.
-   * @return The distance between the two locations.
-   */
-  int findDistance(Tile tile1, Tile tile2)
-  {
-    return (int) (Math.abs(tile1.xPos - tile2.xPos) + Math.abs(tile1.zPos - tile2.zPos));
-  }
-
   /**
    * This method calculates the heading for the zombie to travel to go in the
    * direction of the player.
    *
-   * @param tile1 The starting position of the zombie.
-   * @param tile2 The next position on the path towards the player.
+   * @param from  The id of the tile the zombie is on.
+   * @param next  The id of the next tile on the path towards the player.
+   * @param graph The graph the ids are on.
    */
-  private void calculateHeadings(Tile tile1, Tile tile2)
+  private void calculateHeadings(int from, int next, TileGraph graph)
   {
-    Heading newHeading = new Heading(tile1, tile2);
+    Heading newHeading = new Heading(graph.getCol(next) - graph.getCol(from), graph.getRow(next) - graph.getRow(from));
     zombie.setZombieHeading(newHeading);
   }
 }
@@ -15,6 +15,7 @@ public abstract class Creature extends Entity
   public double angle;
   double stepDistance;
 
+  // Where the creature was at the start of the last tick.
   double lastX;
   double lastZ;
   private double distanceTraveled;
@@ -53,4 +54,24 @@ public abstract class Creature extends Entity
    */
   public abstract void stepSound();
 
+  /**
+   * @param alpha How far from where the creature was at the start of the last
+   *              tick to where it is now, from 0 to 1.
+   * @return The x position to draw the creature at.
+   */
+  public double getDrawX(double alpha)
+  {
+    return lastX + (xPos - lastX) * alpha;
+  }
+
+  /**
+   * @param alpha How far from where the creature was at the start of the last
+   *              tick to where it is now, from 0 to 1.
+   * @return The z position to draw the creature at.
+   */
+  public double getDrawZ(double alpha)
+  {
+    return lastZ + (zPos - lastZ) * alpha;
+  }
+
 }
@@ -2,22 +2,20 @@ package entities;
 
 import java.util.ArrayList;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import com.interactivemesh.jfx.importer.obj.ObjImportOption;
-import com.interactivemesh.jfx.importer.obj.ObjModelImporter;
+import collision.Collision;
 import game_engine.Attributes;
 import game_engine.Scenes;
-import game_engine.ZombieHouse3d;
-import gui.Main;
-import javafx.scene.Group;
-import javafx.scene.Node;
-import javafx.scene.layout.HBox;
-import javafx.scene.shape.Box;
-import javafx.scene.shape.Circle;
-import javafx.scene.shape.Shape3D;
+import graphing.AStarSearch;
+import graphing.FlowField;
+import graphing.HierarchicalSearch;
+import graphing.JumpPointSearch;
+import graphing.Landmarks;
+import graphing.TileGraph;
 import levels.Tile;
-import sounds.Sound;
+import levels.Tile.TileType;
 import sounds.SoundManager;
 import utilities.ZombieBoardRenderer;
 
@@ -43,8 +41,9 @@ public class EntityManager
   private ArrayList<Zombie> deadZombies;
   private ArrayList<Zombie> bifurcatedZombies;
   private PlayerGhost[] ghosts = new PlayerGhost[player.MAX_LIVES];
-
-  public Chainsaw chainsaw;
+  // The zombies that have been put on or taken off of the board since
+  // ZombieHouse3d last added or removed their meshes.
+  private ArrayList<Zombie> changedZombies = new ArrayList<>();
   public Prop1 prop1;
   public Prop2 prop2;
   public Prop3 prop3;
@@ -53,19 +52,41 @@ public class EntityManager
   public Prop3 prop6;
   public ArrayList<Prop> props;
   public SoundManager soundManager;
-  public ZombieHouse3d zombieHouse;
   public Scenes scenes;
-  private Group root;
-  public Main main;
 
   public boolean masterZombieSpawn = false;
   public AtomicBoolean gameIsRunning = new AtomicBoolean(true);
   private Tile[][] gameBoard;
-
-  private MasterZombieDecision masterDecision;
-  private ZombieDecision zombieDecision;
+  // The x and z of the middle of each exit, one after the other.
+  double[] exits = new double[0];
+
+  // The graph of the current board used for pathfinding.
+  TileGraph tileGraph;
+  // The A* search shared by every zombie on the current board.
+  AStarSearch pathSearch;
+  // The jump point search shared by every zombie on the current board.
+  JumpPointSearch jumpPointSearch;
+  // The room to room search used by the master zombie.
+  HierarchicalSearch hierarchicalSearch;
+  // The distances to the player shared by every chasing zombie.
+  private FlowField flowField;
+  // Runs the searches off of the game thread when that is turned on.
+  AsyncPathfinder asyncPathfinder;
+  // Spreads the searches out over frames when that is turned on.
+  PathScheduler pathScheduler;
+  // Recent answers of the searches shared by the zombies.
+  final PathCache pathCache = new PathCache(Attributes.Path_Cache_Size);
+
+  // How often the zombies and the master zombie make decisions, in seconds.
+  private static final double ZOMBIE_DECISION_SECONDS = 2;
+  private static final double MASTER_DECISION_SECONDS = .5;
+  // Runs the zombie decisions and the player's stamina on the game clock.
+  TimerWheel timers = new TimerWheel();
   private int zombiePathIndex = 0;
-  private int collisionTicks = 59;
+  // How long the chainsaw has to keep hitting a zombie that is following a
+  // path before it is split in two again, and how many ticks it has been.
+  private static final double BIFURCATE_SECONDS = 1;
+  private int collisionTicks = 0;
   private long timeToBifurcate = 0;
 
   /**
@@ -74,125 +95,230 @@ public class EntityManager
    * @param scenes The various screens that are seen throughout playing the game, such as
    *               the main menu, the settings menu, the win screen, etc.
    */
-  public EntityManager(Scenes scenes, Group root)
+  public EntityManager(Scenes scenes)
   {
     this.scenes = scenes;
-    this.root = root;
-    main = scenes.getMain();
     soundManager = scenes.getSoundManager();
     zombies = new ArrayList<>();
     deadZombies = new ArrayList<>();
     bifurcatedZombies = new ArrayList<>();
     props = new ArrayList<>();
-    zombieDecision = new ZombieDecision();
-    zombieDecision.setDaemon(true);
-    zombieDecision.start();
   }
 
-  // The number of wall tiles on the map. Used to check for collisions.
+  // The number of wall tiles on the map.
   public int numTiles = 0;
+  // The walls of the current board, used for collision detection.
+  private WallGrid wallGrid;
+  // Which tile each zombie is on, used to find the zombies near the player.
+  private ZombieStore zombieStore;
+  // How close two zombies can get before they push each other apart.
+  private static final double SEPARATION_DISTANCE = 2 * Zombie.HITBOX_RADIUS;
 
   /**
-   * Checks if the zombie is colliding with anything.
+   * Moves a circle towards a new position, stopping it at the first wall in
+   * the way and sliding it along that wall for the rest of the move. This is
+   * done in one sweep, so the circle never ends up inside a wall and never has
+   * to be pushed back out of one.
    *
-   * @return False if no collision detected. True if there is a collision.
+   * @param x        The x position of the center of the circle.
+   * @param z        The z position of the center of the circle.
+   * @param radius   The radius of the circle.
+   * @param deltaX   How far the circle is trying to move along x.
+   * @param deltaZ   How far the circle is trying to move along z.
+   * @param position Set to the x and z position the circle ends up at.
+   * @return True if the circle hit a wall on the way.
    */
-  public boolean checkTwoD(Circle zombieCirc)
+  public boolean moveAgainstWalls(double x, double z, double radius, double deltaX, double deltaZ, double[] position)
   {
-    for (int i = 0; i < numTiles; i++)
-    {
-      if (zombieCirc.getLayoutBounds().intersects(ZombieBoardRenderer.walls.get(i).getLayoutBounds()))
-      {
-        return true;
-      }
-    }
-    return false;
+    return wallGrid.move(x, z, radius, deltaX, deltaZ, position);
   }
 
   /**
-   * Collision detection for 3D zombie objects.
+   * Collision detection for 3D player objects. The player and the zombies are
+   * both checked as circles on the floor, and only the zombies on the tiles
+   * around the player are looked at. Zombies replaying the path they took
+   * before the player's last death don't hurt the player.
    *
    * @return True if there is a collision. False if there isn't.
    */
-  public Box getWallCollision(Shape3D shape)
+  boolean checkPlayerCollision()
   {
-    for (int i = 0; i < numTiles; i++)
+    for (Zombie zombie : zombies)
     {
-      if (shape.getBoundsInParent().intersects(zombieHouse.walls.get(i).getBoundsInParent()))
+      // if at the last index of zombie's path he is dead, remove. (Used for ghost killing zombie)
+      if (zombiePathIndex == zombie.pathTaken.size() - 1 && zombie.pathTaken.get(zombiePathIndex).getIsDead() == 1)
       {
-        return zombieHouse.walls.get(i);
+        removeZombie(zombie);
+        return false;
       }
     }
-    return null;
+
+    int found = zombieStore.findNear(player.xPos, player.zPos, Player.HITBOX_RADIUS + Zombie.HITBOX_RADIUS, Integer.MAX_VALUE);
+    for (int i = 0; i < found; i++)
+    {
+      int handle = zombieStore.getNearby(i);
+      //if player and zombie are colliding
+      if (Collision.circleIntersectsCircle(player.xPos, player.zPos, Player.HITBOX_RADIUS, zombieStore.x[handle], zombieStore.z[handle], Zombie.HITBOX_RADIUS)
+          && !zombieStore.getZombie(handle).hasPath()) return true;
+    }
+    return false;
   }
 
   /**
-   * Collision detection for 3D player objects.
-   *
-   * @param player The shape that represents the player.
-   * @return True if there is a collision. False if there isn't.
+   * Works out which zombies the chainsaw hits while the player is attacking.
+   * The chainsaw reaches out in a cone in front of the player, Chainsaw_Arc
+   * degrees wide and as long as the chainsaw's reach, and
+   * only the zombies on the tiles it covers are checked against it. Zombies
+   * that are hit lose health, or split off a new zombie if they are replaying
+   * an old path, and are taken off the board once they have no health left.
+   * This should only be called while the player is attacking.
    */
-  boolean checkPlayerCollision(Shape3D player, Shape3D chainsaw)
+  void resolveAttack()
   {
-    for (Zombie zombie : zombies)
+    double x = player.xPos;
+    double z = player.zPos;
+    double range = Player.CHAINSAW_REACH;
+    double directionX = Math.sin(Math.toRadians(player.angle));
+    double directionZ = Math.cos(Math.toRadians(player.angle));
+    double halfAngle = Math.toRadians(Attributes.Chainsaw_Arc / 2);
+
+    int found = zombieStore.findNear(x, z, range + Zombie.HITBOX_RADIUS, Integer.MAX_VALUE);
+    for (int i = 0; i < found; i++)
     {
-      // if at the last index of zombie's path he is dead, remove. (Used for ghost killing zombie)
-      if (zombiePathIndex == zombie.pathTaken.size() - 1 && zombie.pathTaken.get(zombiePathIndex).getIsDead() == 1)
+      int handle = zombieStore.getNearby(i);
+      if (!Collision.circleIntersectsCone(zombieStore.x[handle], zombieStore.z[handle], Zombie.HITBOX_RADIUS, x, z, directionX, directionZ, range, halfAngle))
       {
-        zombie.setDead(true);
-        deadZombies.add(zombie);
-        zombies.remove(zombie);
-        root.getChildren().removeAll(zombie.getMesh());
-        return false;
-
+        continue;
       }
-      //if chainsaw and zombie are colliding
-      else if (chainsaw.getBoundsInParent().intersects(zombie.ZOMBIE_HITBOX.getBoundsInParent()))
+      Zombie zombie = zombieStore.getZombie(handle);
+      if (!zombie.hasPath())
       {
-        //if player is attacking and facing zombie
-        if (this.player.attacking && (this.player.angle - zombie.angle > -300 && this.player.angle - zombie.angle < 300))
+        zombie.takeHealth();
+      }
+      else
+      {
+        if (collisionTicks == 0)
         {
-          if (!zombie.hasPath())
-          {
-            zombie.takeHealth();
-          }
-          else
-          {
-            collisionTicks++;
-            if (collisionTicks == 60)
-            {
-              bifurcate(zombie);
-              zombie.setTimeToBifurcate(timeToBifurcate);
-              collisionTicks = 0;
-            }
-          }
+          bifurcate(zombie);
+          zombie.setTimeToBifurcate(timeToBifurcate);
         }
-        if (zombie.getHealth() <= 0)
+        collisionTicks++;
+        if (collisionTicks >= Attributes.secondsToTicks(BIFURCATE_SECONDS))
         {
-          byte dead = 1;
-          //need to blow up the zombie
-          zombie.pathTaken.get(zombie.pathTaken.size() - 1).setIsDead(dead);
-          zombie.setDead(true);
-          deadZombies.add(zombie);
-          zombies.remove(zombie);
-          root.getChildren().removeAll(zombie.getMesh());
+          collisionTicks = 0;
         }
-        if (zombie.hasPath()) return false;
       }
-      //if player and zombie are colliding
-      if (player.getBoundsInParent().intersects(zombie.ZOMBIE_HITBOX.getBoundsInParent())) return true;
+      if (zombie.getHealth() <= 0)
+      {
+        byte dead = 1;
+        //need to blow up the zombie
+        zombie.pathTaken.get(zombie.pathTaken.size() - 1).setIsDead(dead);
+        removeZombie(zombie);
+      }
+    }
+  }
+
+  /**
+   * Takes a dead zombie off of the board.
+   */
+  private void removeZombie(Zombie zombie)
+  {
+    zombie.setDead(true);
+    deadZombies.add(zombie);
+    zombies.remove(zombie);
+    zombieStore.remove(zombie);
+    timers.cancel(zombie.decisionTimer);
+    changedZombies.add(zombie);
+  }
+
+  /**
+   * Works out which way a zombie is pushed by the zombies crowding it, so a
+   * group of zombies following the same path spreads out instead of piling
+   * onto one spot. Each zombie closer than two hitboxes pushes harder the
+   * closer it is. Only Zombie_Max_Neighbours zombies are looked at, so a
+   * crowded hallway costs no more than an empty one.
+   *
+   * This only reads the zombie store, so it can be called for many zombies at
+   * the same time.
+   *
+   * @param zombie     The zombie being pushed.
+   * @param neighbours Used to hold the handles of the nearby zombies. Its
+   *                   length is one more than the most zombies looked at.
+   * @param separation Set to the x and z of the push, which is at most 1 long.
+   */
+  void findSeparation(Zombie zombie, int[] neighbours, double[] separation)
+  {
+    double x = zombie.xPos;
+    double z = zombie.zPos;
+    double pushX = 0;
+    double pushZ = 0;
+    // One more than the most neighbours, since the zombie finds itself too.
+    int found = zombieStore.findNear(x, z, SEPARATION_DISTANCE, neighbours);
+    for (int i = 0; i < found; i++)
+    {
+      int other = neighbours[i];
+      if (other == zombie.handle)
+      {
+        continue;
+      }
+      double deltaX = x - zombieStore.x[other];
+      double deltaZ = z - zombieStore.z[other];
+      double distance = Math.sqrt(deltaX * deltaX + deltaZ * deltaZ);
+      if (distance >= SEPARATION_DISTANCE)
+      {
+        continue;
+      }
+      if (distance == 0)
+      {
+        // Zombies on the exact same spot have no direction between them, so
+        // they are split along x in a fixed order.
+        deltaX = zombie.handle < other ? -1 : 1;
+        distance = 1;
+      }
+      double strength = 1 - distance / SEPARATION_DISTANCE;
+      pushX += deltaX / distance * strength;
+      pushZ += deltaZ / distance * strength;
+    }
+    double length = Math.sqrt(pushX * pushX + pushZ * pushZ);
+    if (length > 1)
+    {
+      pushX /= length;
+      pushZ /= length;
+    }
+    separation[0] = pushX;
+    separation[1] = pushZ;
+  }
 
+  /**
+   * Called by a zombie every time it moves, to keep the zombie store
+   * up to date.
+   *
+   * @param zombie The zombie that moved.
+   */
+  void zombieMoved(Zombie zombie)
+  {
+    if (zombieStore != null)
+    {
+      zombieStore.update(zombie);
     }
-    return false;
   }
 
+
   private void bifurcate(Zombie zombie)
   {
     Zombie newZombie = new Zombie(gameBoard[zombie.getRow()][zombie.getCol()], this);
     zombies.add(newZombie);
-    newZombie.setMesh(ZombieHouse3d.loadMeshViews("Resources/Meshes/Feral_Ghoul/Feral_Ghoul.obj"));
-    root.getChildren().addAll(newZombie.getMesh());
+    zombieStore.add(newZombie);
+    changedZombies.add(newZombie);
     bifurcatedZombies.add(newZombie);
+    // Zombies split off of another zombie go after the player from their
+    // first decision on.
+    int period = Attributes.secondsToTicks(ZOMBIE_DECISION_SECONDS);
+    newZombie.decisionTimer = timers.schedule(() ->
+    {
+      makeZombieDecision(newZombie);
+      newZombie.goingAfterPlayer.set(true);
+    }, period, period);
   }
 
   /**
@@ -219,13 +345,11 @@ public class EntityManager
    */
   public double calculateSoundBalance(Zombie zombie)
   {
-    double angle = player.boundingCircle.getRotate() * (180 / Math.PI);
-
     double xDiff = player.xPos - zombie.xPos;
     double zDiff = player.zPos - zombie.zPos;
     double theta = Math.atan(xDiff / zDiff);
 
-    angle -= theta;
+    double angle = -theta;
     if (angle < -Math.PI) angle += 2 * Math.PI;
 
     return angle / Math.PI;
@@ -282,9 +406,6 @@ public class EntityManager
       {
         zombie.isMasterZombie = true;
         masterZombie = zombie;
-        masterDecision = new MasterZombieDecision();
-        masterDecision.setDaemon(true);
-        masterDecision.start();
       }
       zombieListCounter++;
     }
@@ -292,9 +413,140 @@ public class EntityManager
     for (Zombie zombie : zombies)
     {
       zombie.startZombie();
+      startDecisions(zombie);
+    }
+  }
+
+  /**
+   * Starts the timer that has a zombie make a decision every
+   * ZOMBIE_DECISION_SECONDS, or every MASTER_DECISION_SECONDS for the master
+   * zombie, counted in game ticks from now.
+   *
+   * @param zombie The zombie to start making decisions.
+   */
+  private void startDecisions(Zombie zombie)
+  {
+    if (zombie.isMasterZombie)
+    {
+      int period = Attributes.secondsToTicks(MASTER_DECISION_SECONDS);
+      zombie.decisionTimer = timers.schedule(() -> makeMasterDecision(), period, period);
+    }
+    else
+    {
+      int period = Attributes.secondsToTicks(ZOMBIE_DECISION_SECONDS);
+      zombie.decisionTimer = timers.schedule(() -> makeZombieDecision(zombie), period, period);
+    }
+  }
+
+  /**
+   * Creates the tile graph and the search that the zombies use to find the
+   * player. This has to be called once the board is finished, after all of
+   * the walls have been placed.
+   *
+   * @param gameBoard The finished game board.
+   */
+  public void createGraph(Tile[][] gameBoard)
+  {
+    tileGraph = new TileGraph(gameBoard);
+    wallGrid = new WallGrid(gameBoard);
+    zombieStore = new ZombieStore(gameBoard[0].length, gameBoard.length);
+    for (Zombie zombie : zombies)
+    {
+      zombieStore.add(zombie);
+    }
+    pathSearch = new AStarSearch(tileGraph);
+    Landmarks landmarks = null;
+    if (Attributes.Zombie_Landmark_Heuristic)
+    {
+      landmarks = new Landmarks(tileGraph, gameBoard);
+      pathSearch.setLandmarks(landmarks);
+    }
+    jumpPointSearch = new JumpPointSearch(tileGraph);
+    hierarchicalSearch = new HierarchicalSearch(tileGraph, gameBoard);
+    if (asyncPathfinder != null)
+    {
+      asyncPathfinder.shutdown();
+    }
+    asyncPathfinder = new AsyncPathfinder(tileGraph, gameBoard, landmarks);
+    pathScheduler = new PathScheduler(tileGraph);
+    flowField = new FlowField(tileGraph);
+    // The answers in the cache were found on the last graph.
+    pathCache.clear(tileGraph.size());
+
+    ArrayList<Tile> exitTiles = new ArrayList<>();
+    for (Tile[] tiles : gameBoard)
+    {
+      for (Tile tile : tiles)
+      {
+        if (tile.type == TileType.exit)
+        {
+          exitTiles.add(tile);
+        }
+      }
+    }
+    // The board's rows and columns are the other way around from x and z,
+    // the same as where ZombieHouse3d draws the exits.
+    exits = new double[exitTiles.size() * 2];
+    for (int i = 0; i < exitTiles.size(); i++)
+    {
+      exits[i * 2] = exitTiles.get(i).zPos;
+      exits[i * 2 + 1] = exitTiles.get(i).xPos;
     }
   }
 
+  /**
+   * @return The fraction of zombie path searches that were answered by the
+   * path cache on the current board.
+   */
+  public double getPathCacheHitRate()
+  {
+    return pathCache.getHitRate();
+  }
+
+  /**
+   * @return The board the zombies are on.
+   */
+  Tile[][] getGameBoard()
+  {
+    return gameBoard;
+  }
+
+  /**
+   * Gets the zombies that have been put on or taken off of the board since
+   * this list was last cleared, such as zombies that were killed or split off
+   * of another zombie. ZombieHouse3d adds or removes their meshes and then
+   * clears the list.
+   *
+   * @return The zombies whose meshes need to be added or removed.
+   */
+  public ArrayList<Zombie> getChangedZombies()
+  {
+    return changedZombies;
+  }
+
+  /**
+   * @return The ghosts of the player's past lives, by the life they are from.
+   * A life the player hasn't lost yet has no ghost.
+   */
+  public PlayerGhost[] getGhosts()
+  {
+    return ghosts;
+  }
+
+  /**
+   * Gets the flow field rooted at the player. The field is only rebuilt the
+   * first time this is called after the player has moved onto a new tile, so
+   * every other zombie that asks on the same tile gets it for free.
+   *
+   * @param playerTile The id of the tile the player is standing on.
+   * @return The flow field rooted at the player's tile.
+   */
+  FlowField getFlowField(int playerTile)
+  {
+    flowField.update(playerTile);
+    return flowField;
+  }
+
   /**
    * When a zombie detects the player, the master zombie also detects the player
    * and goes after the player.
@@ -331,6 +583,8 @@ public class EntityManager
    */
   public void tick()
   {
+    runTimers();
+    deliverPathResults();
     zombiePathIndex++;
     player.tick();
     for (int i = 0; i < player.getNumDeaths(); i++)
@@ -338,156 +592,130 @@ public class EntityManager
       if (ghosts[i] != null) ghosts[i].tick();
     }
 
+    thinkZombies();
     for (Zombie zombie : zombies)
     {
-      zombie.tick();
+      zombie.apply();
       if (zombie.goingAfterPlayer.get() && !zombie.isMasterZombie)
       {
         startMasterZombie();
       }
     }
+    runScheduledPaths();
 
+    // ZombieHouse3d stops the game and shows the game over or win screen
+    // once it sees the player has died or found an exit.
     if (player.isDead.get())
     {
-      zombieHouse.stopGameLoop();
       gameIsRunning.set(false);
-      soundManager.stopTrack();
-      soundManager.playSoundClip(Sound.death);
       player.subtractLife();
-      HBox hBox = new HBox();
-      if (player.getLives() > 0)
-      {
-        hBox.getChildren().addAll(scenes.tryAgainButton, scenes.returnButtonDeath);
-        scenes.gameOverRoot.setTop(hBox);
-        main.assignStage(scenes.gameOver);
-      }
-      else
+    }
+  }
+
+  /**
+   * Lets every zombie think and move for this tick. The zombies only change
+   * themselves while thinking, and only see each other through the zombie
+   * store, which isn't updated until they apply their moves, so when there
+   * are enough zombies they are split up and think on the fork join pool.
+   */
+  private void thinkZombies()
+  {
+    if (Attributes.Zombie_Parallel_Update && zombies.size() > Attributes.Zombie_Parallel_Threshold)
+    {
+      ForkJoinPool.commonPool().invoke(new ZombieThinkTask(zombies, 0, zombies.size()));
+    }
+    else
+    {
+      for (Zombie zombie : zombies)
       {
-        hBox.getChildren().addAll(scenes.returnButtonDeath);
-        scenes.gameOverRoot.setTop(hBox);
-        main.assignStage(scenes.gameOver);
+        zombie.think();
       }
     }
+  }
+
+  /**
+   * Moves the game clock forward one tick, running the zombie decisions and
+   * stamina updates that are due. This is done at the start of every tick, so
+   * none of it happens while the game is paused.
+   */
+  public void runTimers()
+  {
+    timers.advance();
+  }
 
-    if (player != null && player.foundExit.get())
+  /**
+   * Gives the zombies the paths that the AsyncPathfinder has finished since
+   * the last tick. This is done at the start of every tick, before any of
+   * the zombies move.
+   */
+  public void deliverPathResults()
+  {
+    if (asyncPathfinder != null)
     {
-      soundManager.stopTrack();
-      soundManager.playSoundClip(Sound.achieve);
-      dispose();
-      HBox hBox = new HBox();
-      scenes.updateWinScreen();
-      hBox.getChildren().addAll(scenes.returnButton, scenes.goTo3dGameNextLevel);
-      scenes.winRoot.setTop(hBox);
-      main.assignStage(scenes.win);
+      asyncPathfinder.deliverResults();
     }
   }
 
   /**
-   * @author Jeffrey McCall This is a class that extends Thread and is used to
-   *         keep track of the decision rate of the zombies, which is 2 seconds.
+   * Runs as many of the searches waiting in the PathScheduler as fit in this
+   * frame's budget. This is done once all of the zombies have moved.
    */
-  private class ZombieDecision extends Thread
+  public void runScheduledPaths()
   {
-    /**
-     * Every two seconds, if the zombie is a random walk zombie, a new angle for
-     * the zombie to walk in is chosen. If the zombie has hit an obstacle, then
-     * the angleAdjusted boolean flag will be on, to indicate that the angle was
-     * adjusted when the zombie hit an obstacle. In this case, the
-     * "makeDecision()" method is called to determine the new angle for the
-     * zombie to travel in, and start it moving again. If the zombie is chasing after
-     * the player, then the "findNewPath" boolean is set to on to indicate that a new
-     * direction towards the player needs to be set.
-     */
-    @Override
-    public void run()
-    {
-      while (gameIsRunning.get())
-      {
-        try
-        {
-          sleep(2000);
-        }
-        catch (InterruptedException e)
-        {
-          e.printStackTrace();
-        }
-        for (Zombie zombie : zombies)
-        {
-          if (!zombie.isMasterZombie)
-          {
-            if (zombie.goingAfterPlayer.get())
-            {
-              zombie.findNewPath.set(true);
-            }
-            if (zombie.randomWalk && !zombie.goingAfterPlayer.get())
-            {
-              zombie.angle = zombie.rand.nextInt(360);
-            }
-            if (zombie.angleAdjusted.get())
-            {
-              zombie.makeDecision();
-            }
-          }
-        }
-        for (Zombie zombie : bifurcatedZombies)
-        {
-          zombie.goingAfterPlayer.set(true);
-        }
-      }
+    if (pathScheduler != null)
+    {
+      pathScheduler.runFrame();
     }
   }
 
   /**
-   * @author Jeffrey McCall
-   *         Thread for the decision rate of the master zombie. It has a
-   *         faster decision rate than the regular zombies. The same operations
-   *         are performed on the master zombie that are performed on the
-   *         other zombies.
+   * Run for each zombie every two seconds, the decision rate of the zombies.
+   * If the zombie is a random walk zombie, a new angle for the zombie to walk
+   * in is chosen. If the zombie has hit an obstacle, then the angleAdjusted
+   * boolean flag will be on, to indicate that the angle was adjusted when the
+   * zombie hit an obstacle. In this case, the "makeDecision()" method is
+   * called to determine the new angle for the zombie to travel in, and start
+   * it moving again. If the zombie is chasing after the player, then the
+   * "findNewPath" boolean is set to on to indicate that a new direction
+   * towards the player needs to be set.
+   *
+   * @param zombie The zombie making a decision.
    */
-  private class MasterZombieDecision extends Thread
+  private void makeZombieDecision(Zombie zombie)
   {
-    /**
-     * While the game is running, perform the same operations on
-     * the master zombie that would be performed on the regular zombies.
-     */
-    @Override
-    public void run()
-    {
-      while (gameIsRunning.get())
-      {
-        try
-        {
-          sleep(500);
-        }
-        catch (InterruptedException e)
-        {
-          e.printStackTrace();
-        }
-        if (masterZombie.masterZombieChasePlayer.get())
-        {
-          masterZombie.findNewPath.set(true);
-        }
-        if (masterZombie.randomWalk && !masterZombie.masterZombieChasePlayer.get())
-        {
-          masterZombie.angle = masterZombie.rand.nextInt(360);
-        }
-        if (masterZombie.angleAdjusted.get())
-        {
-          masterZombie.makeDecision();
-        }
-      }
+    if (zombie.goingAfterPlayer.get())
+    {
+      zombie.findNewPath.set(true);
+    }
+    if (zombie.randomWalk && !zombie.goingAfterPlayer.get())
+    {
+      zombie.angle = zombie.rand.nextInt(360);
+    }
+    if (zombie.angleAdjusted.get())
+    {
+      zombie.makeDecision();
     }
   }
 
   /**
-   * @param zombieHouse ZombieHouse3d Object
-   *                    <p>
-   *                    This Method sets the the current instance of zombieHouse3d with the parameter
-   *                    zombieHouse
+   * Run for the master zombie every half a second, since it has a faster
+   * decision rate than the regular zombies. The same operations are performed
+   * on the master zombie that are performed on the other zombies.
    */
-  public void setZombieHouse3d(ZombieHouse3d zombieHouse)
+  private void makeMasterDecision()
   {
-    this.zombieHouse = zombieHouse;
+    if (masterZombie.masterZombieChasePlayer.get())
+    {
+      masterZombie.findNewPath.set(true);
+    }
+    if (masterZombie.randomWalk && !masterZombie.masterZombieChasePlayer.get())
+    {
+      masterZombie.angle = masterZombie.rand.nextInt(360);
+    }
+    if (masterZombie.angleAdjusted.get())
+    {
+      masterZombie.makeDecision();
+    }
   }
 
   /**
@@ -497,6 +725,8 @@ public class EntityManager
   public void reset()
   {
     zombiePathIndex = 0;
+    // Every timer starts over, counted from the start of the new life.
+    timers.clear();
     player.reset();
     for (PlayerGhost ghost : ghosts)
     {
@@ -507,7 +737,8 @@ public class EntityManager
       if (!bifurcatedZombies.contains(zombie))
       {
         zombies.add(zombie);
-        root.getChildren().addAll(zombie.getMesh());
+        zombieStore.add(zombie);
+        changedZombies.add(zombie);
       }
     }
     deadZombies.clear();
@@ -515,13 +746,24 @@ public class EntityManager
     for (Zombie zombie : zombies)
     {
       zombie.reset();
-      if (bifurcatedZombies.contains(zombie))
+    }
+    // Zombies split off of another zombie don't come back for the next life.
+    zombies.removeIf(zombie ->
+    {
+      if (!bifurcatedZombies.contains(zombie))
       {
-        zombies.remove(zombie);
+        return false;
       }
+      zombieStore.remove(zombie);
+      changedZombies.add(zombie);
+      return true;
+    });
+    for (Zombie zombie : zombies)
+    {
+      startDecisions(zombie);
     }
 
-    ghost = new PlayerGhost(player.getCurrentPath()[player.getNumDeaths() - 1], root);
+    ghost = new PlayerGhost(player.getCurrentPath()[player.getNumDeaths() - 1]);
     ghosts[player.getNumDeaths() - 1] = ghost;
 
     gameIsRunning.set(false);
@@ -530,16 +772,19 @@ public class EntityManager
   /**
    * Clears game data
    */
-  private void dispose()
+  public void dispose()
   {
     for (Zombie zombie : zombies)
     {
       zombie.dispose();
     }
     zombies.clear();
+    timers.clear();
     gameIsRunning.set(false);
-    player.dispose();
     player = null;
-    zombieHouse.dispose();
+    if (asyncPathfinder != null)
+    {
+      asyncPathfinder.shutdown();
+    }
   }
 }
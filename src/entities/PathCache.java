@@ -0,0 +1,174 @@
+package entities;
+
+import java.util.Arrays;
+
+/**
+ * Remembers the answers to recent path searches, so zombies that are on the
+ * same tile and ask for a path to the player on the same frame only cause one
+ * search. This happens a lot with zombies that were just bifurcated from the
+ * same parent, or a group of zombies walking down the same hallway.
+ *
+ * Answers are kept by the tile the search started on and the tile it was
+ * going to, in arrays instead of a map, so looking up and storing an answer
+ * never makes any objects. The key of an answer is from * size + to, where
+ * size is the number of tiles on the graph. Each key can only go in one of
+ * WAYS slots next to each other, picked from a hash of the key, and once
+ * those are full the one that was used the longest ago is written over. The
+ * answers only hold for one graph, so EntityManager clears the cache every
+ * time it builds a new graph.
+ *
+ * Like the searches, this is only used on the game thread.
+ */
+class PathCache
+{
+  // How many slots an answer can go in.
+  private static final int WAYS = 4;
+  // The key of a slot that doesn't hold an answer.
+  private static final long EMPTY = -1;
+
+  private final long[] keys;
+  private final int[] pathLengths;
+  private final int[] firstSteps;
+  // When each slot was last used, counted in calls to lookup and store.
+  private final long[] lastUsed;
+  private final int mask;
+  private long time = 0;
+  // The number of tiles on the graph the answers are for.
+  private int size = 0;
+
+  private int pathLength;
+  private int firstStep;
+
+  // How many lookups found an answer and how many didn't, since the cache
+  // was last cleared.
+  private long hits = 0;
+  private long misses = 0;
+
+  /**
+   * @param capacity The most answers the cache will hold. This is rounded up
+   *                 to a power of two of at least WAYS.
+   */
+  PathCache(int capacity)
+  {
+    int slots = WAYS;
+    while (slots < capacity)
+    {
+      slots *= 2;
+    }
+    keys = new long[slots];
+    pathLengths = new int[slots];
+    firstSteps = new int[slots];
+    lastUsed = new long[slots];
+    mask = slots - 1;
+    Arrays.fill(keys, EMPTY);
+  }
+
+  /**
+   * Throws away every answer. This has to be called whenever the graph the
+   * answers were found on is replaced.
+   *
+   * @param size The number of tiles on the new graph.
+   */
+  void clear(int size)
+  {
+    this.size = size;
+    Arrays.fill(keys, EMPTY);
+    hits = 0;
+    misses = 0;
+  }
+
+  /**
+   * Looks up the answer for a search. If there is one, it can be read with
+   * getPathLength and getFirstStep.
+   *
+   * @param from The id of the tile the search starts on.
+   * @param to   The id of the tile the search is going to.
+   * @return True if the answer was in the cache.
+   */
+  boolean lookup(int from, int to)
+  {
+    long key = key(from, to);
+    int first = firstSlot(key);
+    for (int slot = first; slot < first + WAYS; slot++)
+    {
+      if (keys[slot] == key)
+      {
+        lastUsed[slot] = ++time;
+        pathLength = pathLengths[slot];
+        firstStep = firstSteps[slot];
+        hits++;
+        return true;
+      }
+    }
+    misses++;
+    return false;
+  }
+
+  /**
+   * Adds the answer to a search.
+   *
+   * @param from       The id of the tile the search started on.
+   * @param to         The id of the tile the search was going to.
+   * @param pathLength The path length the search returned.
+   * @param firstStep  The first step of the path, or NO_PATH.
+   */
+  void store(int from, int to, int pathLength, int firstStep)
+  {
+    long key = key(from, to);
+    int first = firstSlot(key);
+    int oldest = first;
+    for (int slot = first; slot < first + WAYS; slot++)
+    {
+      if (keys[slot] == key || keys[slot] == EMPTY)
+      {
+        oldest = slot;
+        break;
+      }
+      if (lastUsed[slot] < lastUsed[oldest])
+      {
+        oldest = slot;
+      }
+    }
+    keys[oldest] = key;
+    pathLengths[oldest] = pathLength;
+    firstSteps[oldest] = firstStep;
+    lastUsed[oldest] = ++time;
+  }
+
+  /**
+   * @return The path length of the last answer that was found by lookup.
+   */
+  int getPathLength()
+  {
+    return pathLength;
+  }
+
+  /**
+   * @return The first step of the last answer that was found by lookup.
+   */
+  int getFirstStep()
+  {
+    return firstStep;
+  }
+
+  /**
+   * @return The fraction of lookups that found an answer since the cache was
+   * last cleared, or 0 if nothing has been looked up.
+   */
+  double getHitRate()
+  {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  private long key(int from, int to)
+  {
+    return (long) from * size + to;
+  }
+
+  private int firstSlot(long key)
+  {
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash >>> 32) & mask & -WAYS;
+  }
+}
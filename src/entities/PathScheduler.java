@@ -0,0 +1,99 @@
+package entities;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+
+import game_engine.Attributes;
+import graphing.TileGraph;
+
+/**
+ * Puts a cap on how much time is spent on zombie pathfinding each frame.
+ * Instead of searching right away, every zombie that wants a path adds a
+ * request here while it ticks. Once all of the zombies have moved, runFrame
+ * runs the waiting requests, most important first, until the frame's budget
+ * of Attributes.Path_Budget_Millis is used up. The rest wait for the next
+ * frame, and until then those zombies keep following their last heading.
+ *
+ * Requests are ordered by how far the zombie is from the player, so the
+ * zombies closest to the player get new paths first, minus a bonus for every
+ * frame since the zombie last got one, so a zombie that is far away is never
+ * left waiting for good.
+ */
+class PathScheduler
+{
+  // How much one frame of waiting counts for, in tiles of distance.
+  private static final int AGE_WEIGHT = 2;
+
+  private static final Comparator<CalculatePath> BY_PRIORITY = new Comparator<CalculatePath>()
+  {
+    @Override
+    public int compare(CalculatePath path1, CalculatePath path2)
+    {
+      return Integer.compare(path1.schedulePriority, path2.schedulePriority);
+    }
+  };
+
+  private final TileGraph graph;
+  private final ArrayList<CalculatePath> waiting = new ArrayList<>();
+  private int frame = 0;
+
+  /**
+   * @param graph The graph of the board the zombies are on.
+   */
+  PathScheduler(TileGraph graph)
+  {
+    this.graph = graph;
+  }
+
+  /**
+   * Asks for a path from a zombie to the player. If the zombie is already
+   * waiting, its request is just moved to the new tiles.
+   *
+   * @param calcPath The CalculatePath of the zombie asking.
+   * @param from     The id of the tile the zombie is on.
+   * @param to       The id of the tile the player is on.
+   */
+  void request(CalculatePath calcPath, int from, int to)
+  {
+    calcPath.requestFrom = from;
+    calcPath.requestTo = to;
+    if (!calcPath.scheduled)
+    {
+      calcPath.scheduled = true;
+      waiting.add(calcPath);
+    }
+  }
+
+  /**
+   * Runs the waiting requests in order until the budget for this frame is
+   * used up. At least one request is run every frame that has any, so the
+   * zombies always make progress even if one search takes longer than the
+   * whole budget.
+   */
+  void runFrame()
+  {
+    frame++;
+    if (waiting.isEmpty())
+    {
+      return;
+    }
+    for (CalculatePath calcPath : waiting)
+    {
+      int age = frame - calcPath.lastSearchFrame;
+      calcPath.schedulePriority = graph.manhattanDistance(calcPath.requestFrom, calcPath.requestTo) - AGE_WEIGHT * age;
+    }
+    waiting.sort(BY_PRIORITY);
+
+    long deadline = System.nanoTime() + (long) (Attributes.Path_Budget_Millis * 1000000);
+    int done = 0;
+    while (done < waiting.size() && (done == 0 || System.nanoTime() < deadline))
+    {
+      CalculatePath calcPath = waiting.get(done);
+      calcPath.scheduled = false;
+      calcPath.lastSearchFrame = frame;
+      calcPath.runSearch(calcPath.requestFrom, calcPath.requestTo);
+      done++;
+    }
+    waiting.subList(0, done).clear();
+  }
+}
@@ -3,15 +3,8 @@ package entities;
 import java.util.ArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import collision.Collision;
 import game_engine.Attributes;
-import graphing.GraphNode;
-import graphing.TileGraph;
-import javafx.scene.PerspectiveCamera;
-import javafx.scene.PointLight;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Box;
-import javafx.scene.shape.Cylinder;
-import javafx.scene.transform.Rotate;
 import levels.Tile;
 import sounds.Sound;
 import utilities.ZombieBoardRenderer;
@@ -24,26 +17,39 @@ import utilities.ZombieBoardRenderer;
  */
 public class Player extends Creature
 {
-  private static final double SPRINT_SPEED = Tile.tileSize / 4d;
-  public static final double WALKING_SPEED = Tile.tileSize / 8d;
+  // How fast the player moves in 3D, in tiles per second.
+  private static final double SPRINT_SPEED = Tile.tileSize * 15d;
+  public static final double WALKING_SPEED = Tile.tileSize * 7.5;
+  // How long the player has to go without being hit before healing.
+  private static final double HEAL_DELAY_SECONDS = 2;
   private static final double START_X = 3;
   private static final double START_Y = 0;
   private static final double START_Z = 2;
   private final double START_ANGLE;
-  private static final int MAX_HEALTH = 500;
+  public static final int MAX_HEALTH = 500;
   static final int MAX_LIVES = 5;
 
-  public Chainsaw chainsaw;
-
   //entityManager
   private EntityManager entityManager;
 
-  //camera:
-  public PerspectiveCamera camera;
-  public PointLight light;
+  //light:
   public int brightness = 255;
   public boolean lightOn = true;
 
+  /**
+   * What the player's light is showing. It is gray at full health, and
+   * turns red while the player is being hit and back again while they heal.
+   */
+  public enum HealthLight
+  {
+    FULL, HURT, HEALING
+  }
+
+  // What the light shows and the health it was last changed for. These are
+  // only set by the tick, and ZombieHouse3d colors the light from them.
+  private HealthLight healthLight = HealthLight.FULL;
+  private int lightHealth = MAX_HEALTH;
+
   public double strafeSpeed;
 
   //position and orientation:
@@ -51,7 +57,10 @@ public class Player extends Creature
   double newZ = 0;
   double offSetX = 0;
   double offSetZ = 0;
-  private double playerRadius = .25;
+  // The player is a circle this big on the floor for collision detection.
+  static final double HITBOX_RADIUS = .25;
+  // How far from the player the chainsaw reaches.
+  static final double CHAINSAW_REACH = .5;
 
   //atomic booleans:
   public AtomicBoolean shiftPressed = new AtomicBoolean(false);
@@ -63,8 +72,8 @@ public class Player extends Creature
   private AtomicBoolean staminaOut = new AtomicBoolean(false);
 
   //other player fields:
-  Cylinder boundingCircle = null;
-  private Cylinder chainsawCylinder = null;
+  // Where the player ends up after being moved against the walls.
+  private final double[] newPosition = new double[2];
   AtomicBoolean isDead = new AtomicBoolean(false);
   AtomicBoolean foundExit = new AtomicBoolean(false);
 
@@ -78,8 +87,8 @@ public class Player extends Creature
 
   private int lives = MAX_LIVES; //for GUI displaying purposes
   private int numDeaths = 0; // for indexing creaturePathInfo array purposes
-  private int damage = 15; //the damage taken by the player when hit by a zombie
-  private int healthRegen = 5; //how fast the player heals when not taking damage(after two seconds)
+  private int damage = 900; //the damage taken by the player each second a zombie is touching them
+  private int healthRegen = 300; //how fast the player heals each second when not taking damage(after two seconds)
   private byte didAttack = 0;
   private byte isDeadinPath = 0;
 
@@ -90,14 +99,13 @@ public class Player extends Creature
   private ArrayList<CreaturePathInfo>[] currentPath = (ArrayList<CreaturePathInfo>[]) new ArrayList[lives];
 
   /**
-   * A constructor for a 3D player. takes in a camera object
+   * A constructor for a 3D player. The camera, the light and the chainsaw
+   * that follow the player belong to ZombieHouse3d.
    *
-   * @param camera        camera object used for player sight
    * @param entityManager entityManager object which updates many of the player fields as
    *                      the game runs
-   * @param light         The light that emanates from the player
    */
-  public Player(PerspectiveCamera camera, EntityManager entityManager, PointLight light, Chainsaw chainsaw)
+  public Player(EntityManager entityManager)
   {
     START_ANGLE = angle;
     stepDistance = 3;
@@ -108,30 +116,9 @@ public class Player extends Creature
     this.speed = 0;
     this.angle = 0;
     this.strafeSpeed = 0;
-    this.chainsaw = chainsaw;
-    camera.setRotate(angle);
-    this.camera = camera;
-    camera.setTranslateX(START_X);
-    chainsaw.setTranslateX(START_X);
-    camera.setTranslateZ(START_Z);
-    chainsaw.setTranslateZ(START_Z);
-    this.light = light;
-    light.setRotationAxis(Rotate.Y_AXIS);
-    boundingCircle = new Cylinder(playerRadius, 1);
-    chainsawCylinder = new Cylinder();
-    chainsawCylinder.setHeight(2);
-    chainsawCylinder.setRadius(.5);
-    PlayerStamina staminaCounter = new PlayerStamina();
-    staminaCounter.start();
-    boundingCircle.setTranslateX(camera.getTranslateX());
-    boundingCircle.setTranslateZ(camera.getTranslateZ());
-    chainsawCylinder.setTranslateX(camera.getTranslateX());
-    chainsawCylinder.setTranslateY(1);
-    chainsawCylinder.setTranslateZ(camera.getTranslateZ());
-    chainsawCylinder.setRotationAxis(Rotate.X_AXIS);
-    //chainsawCylinder.setRotate(angle - 90);
-    lastX = camera.getTranslateX();
-    lastZ = camera.getTranslateZ();
+    startStamina();
+    lastX = START_X;
+    lastZ = START_Z;
 
     for (int i = 0; i < lives; i++)
     {
@@ -156,7 +143,7 @@ public class Player extends Creature
     this.angle = 0;
   }
 
-  int getLives()
+  public int getLives()
   {
     return lives;
   }
@@ -177,13 +164,13 @@ public class Player extends Creature
   /**
    * Calculates Distance for camera
    *
-   * @return The distance between lastX/Z and Camera.getTranslateX/Z
+   * @return The distance between lastX/Z and xPos/zPos
    */
   @Override
   public double calculateDistance()
   {
-    double xDist = camera.getTranslateX() - lastX;
-    double zDist = camera.getTranslateZ() - lastZ;
+    double xDist = xPos - lastX;
+    double zDist = zPos - lastZ;
     return Math.sqrt((xDist * xDist) + (zDist * zDist));
   }
 
@@ -221,85 +208,81 @@ public class Player extends Creature
     return isDead.get();
   }
 
+  public boolean foundExit()
+  {
+    return foundExit.get();
+  }
+
+  public HealthLight getHealthLight()
+  {
+    return healthLight;
+  }
+
+  /**
+   * @return The health the player had when the light last changed.
+   */
+  public int getLightHealth()
+  {
+    return lightHealth;
+  }
+
   /**
    * Updates the player values when called from an animation timer
    * Implemented in 3 dimensions
    */
   public void tick()
   {
-    Cylinder tempX = new Cylinder(boundingCircle.getRadius(), boundingCircle.getHeight());
-    Cylinder tempZ = new Cylinder(boundingCircle.getRadius(), boundingCircle.getHeight());
-
-    double movementX = boundingCircle.getTranslateX();
-    double movementZ = boundingCircle.getTranslateZ();
+    // The speeds are per second, so only a tick's worth of them is moved.
+    double secondsPerTick = 1.0 / Attributes.Frame_Rate;
+    double movementX = xPos;
+    double movementZ = zPos;
 
-    movementX += (speed * Math.sin(angle * (Math.PI / 180)));
-    movementX += (strafeSpeed * Math.sin(angle * (Math.PI / 180) - Math.PI / 2));
-    movementZ += (speed * Math.cos(angle * (Math.PI / 180)));
-    movementZ += (strafeSpeed * Math.cos(angle * (Math.PI / 180) - Math.PI / 2));
+    movementX += (speed * secondsPerTick * Math.sin(angle * (Math.PI / 180)));
+    movementX += (strafeSpeed * secondsPerTick * Math.sin(angle * (Math.PI / 180) - Math.PI / 2));
+    movementZ += (speed * secondsPerTick * Math.cos(angle * (Math.PI / 180)));
+    movementZ += (strafeSpeed * secondsPerTick * Math.cos(angle * (Math.PI / 180) - Math.PI / 2));
 
 
-    tempX.setTranslateX(movementX);
-    tempX.setTranslateZ(boundingCircle.getTranslateZ());
-
-    tempZ.setTranslateX(boundingCircle.getTranslateX());
-    tempZ.setTranslateZ(movementZ);
-
-    Box collisionX = entityManager.getWallCollision(tempX);
-    Box collisionZ = entityManager.getWallCollision(tempZ);
+    // Sweep the player towards where they are trying to go, so they stop at
+    // the first wall in the way and slide along it instead of going through.
+    entityManager.moveAgainstWalls(xPos, zPos, HITBOX_RADIUS, movementX - xPos, movementZ - zPos, newPosition);
 
     if (turnLeft || turnRight)
     {
       if (turnLeft)
       {
-        angle -= Attributes.Player_Rotate_sensitivity;
+        angle -= Attributes.Player_Rotate_sensitivity * secondsPerTick;
       }
       else
       {
-        angle += Attributes.Player_Rotate_sensitivity;
+        angle += Attributes.Player_Rotate_sensitivity * secondsPerTick;
       }
-      camera.setRotate(angle);
-      chainsaw.setRotate(angle);
-      //chainsawCylinder.setRotate(angle - 90);
     }
 
-    lastX = camera.getTranslateX();
-    lastZ = camera.getTranslateZ();
-
-    if (collisionX == null)
-    {
+    // The camera, the chainsaw and the light are moved to follow the player
+    // by ZombieHouse3d once the tick is done.
+    lastX = xPos;
+    lastZ = zPos;
+    xPos = newPosition[0];
+    zPos = newPosition[1];
 
-      camera.setTranslateX(movementX);
-      //chainsaw.setTranslateX(movementX);
-      chainsaw.setTranslateX(.45 * Math.sin(Math.toRadians(angle)) + movementX);
-    }
-    if (collisionZ == null)
+    if (attacking)
     {
-      //System.out.println("movememtZ " + movementZ);
-
-      camera.setTranslateZ(movementZ);
-      //chainsaw.setTranslateZ(movementZ);
-      chainsaw.setTranslateZ(.45 * Math.cos(Math.toRadians(angle)) + movementZ - .4);
+      entityManager.resolveAttack();
     }
 
-
-    boundingCircle.setTranslateX(camera.getTranslateX());
-    boundingCircle.setTranslateZ(camera.getTranslateZ());
-    chainsawCylinder.setTranslateX(camera.getTranslateX());
-    chainsawCylinder.setTranslateZ(camera.getTranslateZ());
-
-
-    if (entityManager.checkPlayerCollision(boundingCircle, chainsawCylinder))
+    if (entityManager.checkPlayerCollision())
     {
       //every time the zombie touches you, then you lose health
-      health -= damage;
+      health -= (int) Math.round(damage * secondsPerTick);
       //set gotHit to true and healTime back to zero because you only heal after two seconds of not getting hit
       gotHit = true;
       healTime = 0;
 
       if (health > -MAX_HEALTH)
       {
-        light.setColor(Color.rgb( ((MAX_HEALTH + health) / 4), ((health / 50) + 10), ((health / 5) + 10)));
+        healthLight = HealthLight.HURT;
+        lightHealth = health;
       }
 
       //if the health is 0, or less than 0(which will only occur once) then you're dead
@@ -313,10 +296,11 @@ public class Player extends Creature
     {
       healTime++;
 
-      if (health < MAX_HEALTH && healTime >= 120)
+      if (health < MAX_HEALTH && healTime >= Attributes.secondsToTicks(HEAL_DELAY_SECONDS))
       {
-        health += healthRegen;
-        light.setColor(Color.rgb((int) ((MAX_HEALTH + health) / 4), (int) (100 - (health / 5)), (int) (100 - (health / 5))));
+        health += (int) Math.round(healthRegen * secondsPerTick);
+        healthLight = HealthLight.HEALING;
+        lightHealth = health;
       }
       //do not want the health to be greater than the MAX_HEALTH, then if it is
       //set it to MAX_HEALTH
@@ -327,10 +311,14 @@ public class Player extends Creature
     }
     //System.out.println(health + "    in tick()");
 
-    //checking for exit collision
-    for (Box box : entityManager.zombieHouse.exits)
+    //checking for exit collision. The path the player moved along this frame
+    //is checked against each exit grown by the player's radius, so the exit
+    //can't be skipped over.
+    double[] exits = entityManager.exits;
+    double reach = Tile.tileSize / 2.0 + HITBOX_RADIUS;
+    for (int i = 0; i < exits.length; i += 2)
     {
-      if (box.getBoundsInParent().intersects(boundingCircle.getBoundsInParent()))
+      if (Collision.segmentIntersectsBox(lastX, lastZ, xPos, zPos, exits[i] - reach, exits[i + 1] - reach, exits[i] + reach, exits[i + 1] + reach))
       {
         foundExit.set(true);
       }
@@ -352,11 +340,6 @@ public class Player extends Creature
     }
 
     updateDistance();
-    light.setTranslateX(camera.getTranslateX());
-    light.setTranslateZ(camera.getTranslateZ());
-    light.setRotate(camera.getRotate() - 180);
-    xPos = camera.getTranslateX();
-    zPos = camera.getTranslateZ();
 
     //adds EVERY step taken to path. There'll be many repeats because it records how long player stays there
     currentPath[numDeaths].add(new CreaturePathInfo((float) xPos, (float) zPos, (float) angle, didAttack, isDeadinPath));
@@ -365,17 +348,6 @@ public class Player extends Creature
 
   }
 
-  /**
-   * Clears Data from previous Game
-   */
-  void dispose()
-  {
-    camera = null;
-    light = null;
-    boundingCircle = null;
-    chainsawCylinder = null;
-  }
-
   void reset()
   {
     fullHealth();
@@ -383,62 +355,40 @@ public class Player extends Creature
     xPos = START_X;
     yPos = START_Y;
     zPos = START_Z;
-
-    camera.setTranslateX(START_X);
-    chainsaw.setTranslateX(START_X);
-    camera.setTranslateZ(START_Z);
-    chainsaw.setTranslateZ(START_Z);
 //    camera.setRotate(START_ANGLE);
 //    chainsaw.setRotate(START_ANGLE);
-    boundingCircle.setTranslateX(START_X);
-    boundingCircle.setTranslateZ(START_Z);
+    lastX = START_X;
+    lastZ = START_Z;
+    startStamina();
     numDeaths++;
     isDead.set(false);
     System.out.printf("health = %d\nlives = %d\nnumber of deaths = %d\n", health, lives, numDeaths);
   }
 
   /**
-   * Get the current GraphNode object that represents the tile that the player
-   * is standing on.
+   * Get the id of the tile on the tile graph that the player is standing on.
    *
-   * @return The GraphNode that represents the tile that the player is standing
-   * on.
+   * @return The id of the tile that the player is standing on, or NO_TILE if
+   * the player is off the board.
    */
-  GraphNode getCurrentNode()
+  int getCurrentNode()
   {
-    GraphNode currentNode = null;
-    Tile currentTile = null;
-    double currentX = boundingCircle.getTranslateX();
-    double currentZ = boundingCircle.getTranslateZ();
-    currentTile = entityManager.zombieHouse.getGameBoard()[(int) currentZ][(int) currentX];
-    if (TileGraph.tileGraph.containsKey(currentTile))
-    {
-      currentNode = TileGraph.tileGraph.get(currentTile);
-    }
-    return currentNode;
+    return entityManager.tileGraph.getId((int) zPos, (int) xPos);
   }
 
   /**
-   * Get the current GraphNode object that represents the tile that the player
-   * is standing on. This is the same as the previous method except that it is
-   * called for the 2D board, not the 3D one.
+   * Get the id of the tile on the tile graph that the player is standing on.
+   * This is the same as the previous method except that it is called for the
+   * 2D board, not the 3D one.
    *
-   * @return The GraphNode that represents the tile that the player is standing
-   * on.
+   * @return The id of the tile that the player is standing on, or NO_TILE if
+   * the player is off the board.
    */
-  GraphNode getCurrent2dNode()
+  int getCurrent2dNode()
   {
-    GraphNode currentNode = null;
-    Tile currentTile = null;
     double currentX = xPos / ZombieBoardRenderer.cellSize;
     double currentY = yPos / ZombieBoardRenderer.cellSize;
-    currentTile = ZombieBoardRenderer.gameBoard[(int) currentY][(int) currentX];
-    if (TileGraph.tileGraph.containsKey(currentTile))
-    {
-      currentNode = TileGraph.tileGraph.get(currentTile);
-      return currentNode;
-    }
-    return currentNode;
+    return entityManager.tileGraph.getId((int) currentY, (int) currentX);
   }
 
   ArrayList<CreaturePathInfo>[] getCurrentPath()
@@ -455,59 +405,49 @@ public class Player extends Creature
     health = MAX_HEALTH;
     healTime = 0;
     gotHit = false;
-    light.setColor(Color.GRAY);
+    healthLight = HealthLight.FULL;
+    lightHealth = MAX_HEALTH;
   }
 
   /**
-   * @author Jeffrey McCall
-   *         This class keeps track of player stamina. While the player
-   *         is running, the stamina is decremented until it reaches 0. At that time,
-   *         the player can't run until the stamina regenerates. This class takes care
-   *         of decrementing and regenerating stamina.
+   * Starts updating the player's stamina once a second of game time. The
+   * entity manager's timers have to have been cleared or just made, so there
+   * is only ever one of these running.
    */
-  private class PlayerStamina extends Thread
+  private void startStamina()
   {
-    /**
-     * Once every second, decrement stamina if shift is pressed.
-     * If stamina reaches 0, regenerate stamina at a constant rate
-     * once every second until stamina reaches max of 5. Exit thread if
-     * program is closed.
-     */
-    @Override
-    public void run()
+    int period = Attributes.secondsToTicks(1);
+    entityManager.timers.schedule(() -> updateStamina(), period, period);
+  }
+
+  /**
+   * This keeps track of player stamina. While the player is running, the
+   * stamina is decremented until it reaches 0. At that time, the player can't
+   * run until the stamina regenerates. Once every second, decrement stamina if
+   * shift is pressed. If stamina reaches 0, regenerate stamina at a constant
+   * rate once every second until stamina reaches max of 5.
+   */
+  private void updateStamina()
+  {
+    if (shiftPressed.get() && !staminaOut.get())
     {
-      while (gameIsRunning.get())
+      stamina--;
+      if (stamina == 0) staminaOut.set(true);
+
+    }
+    else if (!shiftPressed.get())
+    {
+      deltaTime++;
+      if (((deltaTime * staminaRegen) + stamina) <= 5)
+      {
+        stamina += deltaTime * staminaRegen;
+      }
+      else
       {
-        try
-        {
-          sleep(1000);
-        }
-        catch (InterruptedException e)
-        {
-          e.printStackTrace();
-        }
-        if (shiftPressed.get() && !staminaOut.get())
-        {
-          stamina--;
-          if (stamina == 0) staminaOut.set(true);
-
-        }
-        else if (!shiftPressed.get())
-        {
-          deltaTime++;
-          if (((deltaTime * staminaRegen) + stamina) <= 5)
-          {
-            stamina += deltaTime * staminaRegen;
-          }
-          else
-          {
-            stamina = 5;
-            deltaTime = 0;
-            staminaOut.set(false);
-          }
-        }
+        stamina = 5;
+        deltaTime = 0;
+        staminaOut.set(false);
       }
-      System.exit(0);
     }
   }
 }
\ No newline at end of file
@@ -1,12 +1,5 @@
 package entities;
 
-import com.interactivemesh.jfx.importer.obj.ObjImportOption;
-import com.interactivemesh.jfx.importer.obj.ObjModelImporter;
-
-import javafx.scene.Group;
-import javafx.scene.Node;
-import javafx.scene.transform.Rotate;
-
 import java.util.ArrayList;
 
 /**
@@ -16,33 +9,24 @@ import java.util.ArrayList;
 public class PlayerGhost extends Creature
 {
   private ArrayList<CreaturePathInfo> path;
-  private Node[] in;
-  private Group root;
   private boolean dead;
   private int position = 1;
 
-  public PlayerGhost(ArrayList<CreaturePathInfo> path, Group root)
+  /**
+   * A ghost that walks the path the player took in one of their past lives.
+   * ZombieHouse3d draws the ghost's mesh where the ghost is each frame.
+   *
+   * @param path The path the player took in that life.
+   */
+  public PlayerGhost(ArrayList<CreaturePathInfo> path)
   {
     this.path = (ArrayList<CreaturePathInfo>) path.clone();
-    this.root = root;
-    ObjModelImporter ghostMesh = new ObjModelImporter();
-    ghostMesh.setOptions(ObjImportOption.NONE);
-    ghostMesh.read("Resources/Meshes/ghost/ghost_s.obj");
-    in = ghostMesh.getImport();
-    for (int i = 0; i < in.length; i++)
-    {
-      in[i].setTranslateX(path.get(0).getX());
-      in[i].setTranslateY(.6);
-      in[i].setTranslateZ(path.get(0).getZ());
-      in[i].setRotationAxis(Rotate.Y_AXIS);
-      in[i].setRotate(path.get(0).getAngle());
-    }
-    ghostMesh.close();
-    root.getChildren().addAll(in);
+    moveTo(0);
   }
 
   /**
-   *
+   * Moves the ghost one step along its path, or ends it once it has walked
+   * the whole path.
    */
   public void tick()
   {
@@ -50,25 +34,21 @@ public class PlayerGhost extends Creature
     {
       if (path.size() > position)
       {
-        for (int i = 0; i < in.length; i++)
-        {
-          in[i].setTranslateX(path.get(position).getX());
-          in[i].setTranslateZ(path.get(position).getZ());
-          in[i].setRotate(path.get(position).getAngle());
-        }
+        moveTo(position);
         position++;
       }
       else
       {
-        for (int i = 0; i < in.length; i++)
-        {
-          in[i].setVisible(false);
-        }
         dead = true;
       }
     }
   }
 
+  public boolean isDead()
+  {
+    return dead;
+  }
+
   public void stepSound()
   {
 
@@ -83,9 +63,12 @@ public class PlayerGhost extends Creature
   {
     position = 0;
     dead = false;
-    for (int i = 0; i < in.length; i++)
-    {
-      in[i].setVisible(true);
-    }
+  }
+
+  private void moveTo(int step)
+  {
+    xPos = path.get(step).getX();
+    zPos = path.get(step).getZ();
+    angle = path.get(step).getAngle();
   }
 }
@@ -0,0 +1,200 @@
+package entities;
+
+/**
+ * Runs tasks after a number of game ticks, once or over and over. This
+ * replaces the threads that used to sleep between zombie decisions and
+ * stamina updates. Time only moves forward when advance is called, which is
+ * once a tick from the game loop, so the tasks run on the game thread in
+ * between ticks, stop while the game is paused, and all start over from the
+ * beginning when the wheel is cleared.
+ *
+ * The wheel has a few levels of slots. The first level has one slot for each
+ * of the next 64 ticks, the second has one slot for each of the next 64 runs
+ * of 64 ticks, and so on. A timer is put in the slot for the tick it is due
+ * on, on the lowest level that reaches that far. Every 64 ticks the next slot
+ * up is emptied into the levels below it, and every tick the timers in the
+ * first level's slot for that tick are run. Each slot is a list linked
+ * through the timers themselves, so starting, cancelling and running a timer
+ * all take the same time however many timers there are.
+ */
+class TimerWheel
+{
+  private static final int SLOT_BITS = 6;
+  private static final int SLOTS = 1 << SLOT_BITS;
+  private static final int SLOT_MASK = SLOTS - 1;
+  private static final int LEVELS = 4;
+  // The longest a timer can be set for, in ticks.
+  private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+  /**
+   * A task waiting on the wheel. It is handed back when the task is scheduled
+   * so it can be cancelled.
+   */
+  static class Timer
+  {
+    private final Runnable task;
+    private final int period;
+    private long due;
+    private int level;
+    private int slot;
+    private boolean scheduled = false;
+    private boolean cancelled = false;
+    private Timer next;
+    private Timer previous;
+
+    private Timer(Runnable task, int period)
+    {
+      this.task = task;
+      this.period = period;
+    }
+  }
+
+  private final Timer[][] slots = new Timer[LEVELS][SLOTS];
+  // The number of ticks since the wheel was made or last cleared.
+  private long now = 0;
+  // How many times the wheel has been cleared.
+  private int clears = 0;
+
+  /**
+   * Runs a task after a number of ticks, and then again every period ticks
+   * after that if the period isn't 0.
+   *
+   * @param task   The task to run.
+   * @param delay  How many ticks to wait before running it the first time.
+   *               This is at least 1.
+   * @param period How many ticks to wait between runs, or 0 to only run once.
+   * @return The timer, which can be given to cancel.
+   */
+  Timer schedule(Runnable task, int delay, int period)
+  {
+    if (delay < 1 || delay > MAX_DELAY || period < 0 || period > MAX_DELAY)
+    {
+      throw new IllegalArgumentException("Timer delay " + delay + " or period " + period + " is out of range");
+    }
+    Timer timer = new Timer(task, period);
+    timer.due = now + delay;
+    place(timer);
+    return timer;
+  }
+
+  /**
+   * Stops a timer from running again. Nothing is done if it has already run
+   * for the last time, was cancelled, or was cleared off of the wheel.
+   *
+   * @param timer The timer to stop. This can be null.
+   */
+  void cancel(Timer timer)
+  {
+    if (timer == null)
+    {
+      return;
+    }
+    timer.cancelled = true;
+    if (timer.scheduled)
+    {
+      unlink(timer);
+    }
+  }
+
+  /**
+   * Moves the wheel forward one tick and runs every task that is due. A task
+   * can start and cancel timers while it runs.
+   */
+  void advance()
+  {
+    now++;
+    // Empty the slots on the higher levels that have come due into the
+    // levels below them.
+    for (int level = 1; level < LEVELS && (now & ((1L << (SLOT_BITS * level)) - 1)) == 0; level++)
+    {
+      int slot = (int) (now >>> (SLOT_BITS * level)) & SLOT_MASK;
+      Timer timer = slots[level][slot];
+      slots[level][slot] = null;
+      while (timer != null)
+      {
+        Timer next = timer.next;
+        place(timer);
+        timer = next;
+      }
+    }
+    int slot = (int) now & SLOT_MASK;
+    int clearsBefore = clears;
+    Timer timer;
+    while ((timer = slots[0][slot]) != null)
+    {
+      unlink(timer);
+      timer.task.run();
+      if (clears != clearsBefore)
+      {
+        // The task cleared the wheel, so nothing else from before is due.
+        return;
+      }
+      if (timer.period > 0 && !timer.cancelled)
+      {
+        // Counted from when it was due, so a periodic timer never drifts.
+        timer.due += timer.period;
+        place(timer);
+      }
+    }
+  }
+
+  /**
+   * Takes every timer off of the wheel and sets the time back to 0.
+   */
+  void clear()
+  {
+    for (int level = 0; level < LEVELS; level++)
+    {
+      for (int slot = 0; slot < SLOTS; slot++)
+      {
+        for (Timer timer = slots[level][slot]; timer != null; timer = timer.next)
+        {
+          timer.scheduled = false;
+        }
+        slots[level][slot] = null;
+      }
+    }
+    now = 0;
+    clears++;
+  }
+
+  private void place(Timer timer)
+  {
+    long delay = timer.due - now;
+    int level = 0;
+    while (level < LEVELS - 1 && delay >= 1L << (SLOT_BITS * (level + 1)))
+    {
+      level++;
+    }
+    int slot = (int) (timer.due >>> (SLOT_BITS * level)) & SLOT_MASK;
+    timer.level = level;
+    timer.slot = slot;
+    timer.previous = null;
+    timer.next = slots[level][slot];
+    if (timer.next != null)
+    {
+      timer.next.previous = timer;
+    }
+    slots[level][slot] = timer;
+    timer.scheduled = true;
+  }
+
+  private void unlink(Timer timer)
+  {
+    if (timer.previous != null)
+    {
+      timer.previous.next = timer.next;
+    }
+    else
+    {
+      slots[timer.level][timer.slot] = timer.next;
+    }
+    if (timer.next != null)
+    {
+      timer.next.previous = timer.previous;
+    }
+    timer.next = null;
+    timer.previous = null;
+    timer.scheduled = false;
+  }
+}
@@ -0,0 +1,199 @@
+package entities;
+
+import levels.Tile;
+
+/**
+ * The walls of the board, kept as one flag per tile, for collision detection.
+ * Every wall fills exactly one tile, so to check if something round hits a
+ * wall only the tiles around it have to be looked at, instead of the bounds of
+ * every wall on the board.
+ *
+ * The grid moves a circle so that it never ends up inside a wall. The
+ * move is swept against the walls it passes, the circle stops where it first
+ * touches one and slides along it for the rest of the move. The walls are
+ * grown by the radius of the circle so the circle can be moved as a point.
+ * This is done in a fixed number of passes, so it always takes about the same
+ * time however the circle is moving.
+ *
+ * Positions are in tiles, with x along the second index of the board and z
+ * along the first, the same way the 3D board places its tiles. Anything off
+ * of the board isn't a wall, the same as before, since there are no wall
+ * boxes there.
+ */
+class WallGrid
+{
+  // The most times a move can slide along a wall in one call. Two is enough
+  // to slide into a corner and stop.
+  private static final int MAX_SLIDES = 2;
+  // How far from a wall a circle is left when it is stopped by one, so it
+  // isn't touching the wall on the next move.
+  private static final double SKIN = 1e-6;
+
+  private final int width;
+  private final int height;
+  private final boolean[] wall;
+
+  /**
+   * Builds the grid for a finished board, once all of the walls have been
+   * placed.
+   *
+   * @param gameBoard The finished game board.
+   */
+  WallGrid(Tile[][] gameBoard)
+  {
+    height = gameBoard.length;
+    width = gameBoard[0].length;
+    wall = new boolean[width * height];
+    for (int row = 0; row < height; row++)
+    {
+      for (int col = 0; col < width; col++)
+      {
+        wall[row * width + col] = gameBoard[row][col].isWall;
+      }
+    }
+  }
+
+  /**
+   * @param row The first index of the tile on the board.
+   * @param col The second index of the tile on the board.
+   * @return True if the tile is on the board and is a wall.
+   */
+  boolean isWall(int row, int col)
+  {
+    return row >= 0 && row < height && col >= 0 && col < width && wall[row * width + col];
+  }
+
+  /**
+   * Moves a circle as far as it can go towards a new position without going
+   * into a wall, sliding along any wall it hits. If the circle starts out in
+   * a wall (or the grown wall around it), it is first pushed out the
+   * shortest way.
+   *
+   * @param x        The x position of the center of the circle.
+   * @param z        The z position of the center of the circle.
+   * @param radius   The radius of the circle.
+   * @param deltaX   How far the circle is trying to move along x.
+   * @param deltaZ   How far the circle is trying to move along z.
+   * @param position Set to the x and z position the circle ends up at.
+   * @return True if the circle hit a wall.
+   */
+  boolean move(double x, double z, double radius, double deltaX, double deltaZ, double[] position)
+  {
+    boolean hit = false;
+    // Push the circle out of any walls it is already in.
+    int firstRow = (int) Math.floor(z - radius);
+    int firstCol = (int) Math.floor(x - radius);
+    for (int row = firstRow; row <= (int) Math.floor(z + radius); row++)
+    {
+      for (int col = firstCol; col <= (int) Math.floor(x + radius); col++)
+      {
+        if (!isWall(row, col) || x <= col - radius || x >= col + 1 + radius || z <= row - radius || z >= row + 1 + radius)
+        {
+          continue;
+        }
+        hit = true;
+        double left = x - (col - radius);
+        double right = (col + 1 + radius) - x;
+        double up = z - (row - radius);
+        double down = (row + 1 + radius) - z;
+        double least = Math.min(Math.min(left, right), Math.min(up, down));
+        if (least == left)
+        {
+          x -= left + SKIN;
+        }
+        else if (least == right)
+        {
+          x += right + SKIN;
+        }
+        else if (least == up)
+        {
+          z -= up + SKIN;
+        }
+        else
+        {
+          z += down + SKIN;
+        }
+      }
+    }
+
+    for (int pass = 0; pass <= MAX_SLIDES && (deltaX != 0 || deltaZ != 0); pass++)
+    {
+      double impact = 1;
+      boolean impactOnX = false;
+      int lastRow = (int) Math.floor(Math.max(z, z + deltaZ) + radius);
+      int lastCol = (int) Math.floor(Math.max(x, x + deltaX) + radius);
+      for (int row = (int) Math.floor(Math.min(z, z + deltaZ) - radius); row <= lastRow; row++)
+      {
+        for (int col = (int) Math.floor(Math.min(x, x + deltaX) - radius); col <= lastCol; col++)
+        {
+          if (!isWall(row, col))
+          {
+            continue;
+          }
+          double enterX = entryTime(x, deltaX, col - radius, col + 1 + radius);
+          double enterZ = entryTime(z, deltaZ, row - radius, row + 1 + radius);
+          double exitX = exitTime(x, deltaX, col - radius, col + 1 + radius);
+          double exitZ = exitTime(z, deltaZ, row - radius, row + 1 + radius);
+          double enter = Math.max(enterX, enterZ);
+          if (enter >= 0 && enter < impact && enter < Math.min(exitX, exitZ))
+          {
+            impact = enter;
+            impactOnX = enterX > enterZ;
+          }
+        }
+      }
+      if (impact == 1)
+      {
+        x += deltaX;
+        z += deltaZ;
+        break;
+      }
+      hit = true;
+      // Stop just short of the wall, then slide along it with what is left
+      // of the move.
+      double length = Math.sqrt(deltaX * deltaX + deltaZ * deltaZ);
+      double travel = Math.max(0, impact - SKIN / length);
+      x += deltaX * travel;
+      z += deltaZ * travel;
+      deltaX *= 1 - travel;
+      deltaZ *= 1 - travel;
+      if (impactOnX)
+      {
+        deltaX = 0;
+      }
+      else
+      {
+        deltaZ = 0;
+      }
+    }
+    position[0] = x;
+    position[1] = z;
+    return hit;
+  }
+
+  /**
+   * The fraction of a move along one axis at which a point enters the range
+   * from min to max, or negative infinity if it is always in it.
+   */
+  private static double entryTime(double start, double delta, double min, double max)
+  {
+    if (delta == 0)
+    {
+      return start > min && start < max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+    }
+    return delta > 0 ? (min - start) / delta : (max - start) / delta;
+  }
+
+  /**
+   * The fraction of a move along one axis at which a point leaves the range
+   * from min to max, or positive infinity if it never leaves it.
+   */
+  private static double exitTime(double start, double delta, double min, double max)
+  {
+    if (delta == 0)
+    {
+      return start > min && start < max ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+    }
+    return delta > 0 ? (max - start) / delta : (min - start) / delta;
+  }
+}
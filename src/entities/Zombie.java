@@ -9,9 +9,7 @@ import java.util.Random;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import game_engine.Attributes;
-import graphing.GraphNode;
 import graphing.Heading;
-import graphing.NodeComparator;
 import graphing.TileGraph;
 import javafx.scene.Node;
 import javafx.scene.paint.Color;
@@ -35,15 +33,23 @@ public class Zombie extends Creature
   private final double START_Z;
   private final int START_ROW;
   private final int START_COL;
-  final Cylinder ZOMBIE_HITBOX;
+  // The zombie is a circle this big on the floor for collision detection.
+  static final double HITBOX_RADIUS = .2;
+  // The damage the chainsaw does to a zombie each second it is hitting it.
+  private static final int CHAINSAW_DAMAGE = 480;
+
+  // This zombie's slot in the EntityManager's ZombieStore, or NO_HANDLE when
+  // it isn't on the board.
+  int handle = ZombieStore.NO_HANDLE;
 
   private EntityManager entityManager;
   private CalculatePath calcPath;
 
   boolean randomWalk = false;
   Random rand = new Random();
-  double zombieWalkingSpeed = .01;
-  double masterZombieSpeed = .05;
+  // How fast the zombies move in 3D, in tiles per second.
+  double zombieWalkingSpeed = .6;
+  double masterZombieSpeed = 3;
   double masterZombie2dSpeed = .3;
   double zombieSmell = 15.0;
   double twoDSpeed = (.5 / 60) * ZombieBoardRenderer.cellSize;
@@ -53,7 +59,7 @@ public class Zombie extends Creature
   public boolean twoDBoard = false;
 
   /*
-   * Booleans used to keep track of events in the animation timer and the thread
+   * Booleans used to keep track of events in the animation timer and the timer
    * in EntityManager that governs the decision rate of each zombie.
    */
   public AtomicBoolean gameIsRunning = new AtomicBoolean(true);
@@ -72,8 +78,18 @@ public class Zombie extends Creature
   private double prevAngle = 0;
   private double lastAngle = 0;
   private Heading zombieHeading;
-  private double lastX;
-  private double lastZ;
+  // Which way the zombie mesh faces, in degrees.
+  private double facing = 0;
+  // Set when the last move ran into a wall, and where that move ended up.
+  private boolean hitWall = false;
+  private final double[] newPosition = new double[2];
+  // Which way the zombies crowding this one are pushing it, and the handles
+  // of the zombies looked at to work that out.
+  private final double[] separation = new double[2];
+  private int[] neighbours = new int[Attributes.Zombie_Max_Neighbours + 1];
+  // Has the zombie make a decision at its decision rate, while it is on the
+  // board.
+  TimerWheel.Timer decisionTimer;
 
   private boolean hasPath;
   private boolean engaged;
@@ -118,7 +134,8 @@ public class Zombie extends Creature
 
     pathTaken = new ArrayList<>();
     health = fullHealth; // initialize the zombie health, they will not heal
-    ZOMBIE_HITBOX = createZombieHitbox(tile.tileSize);
+    lastX = xPos;
+    lastZ = zPos;
   }
 
   boolean isDead()
@@ -126,6 +143,14 @@ public class Zombie extends Creature
     return dead;
   }
 
+  /**
+   * @return True if the zombie is on the board, so its mesh should be drawn.
+   */
+  public boolean isOnBoard()
+  {
+    return handle != ZombieStore.NO_HANDLE;
+  }
+
   void setDead(boolean dead)
   {
     isDeadInPath = 1;
@@ -185,7 +210,7 @@ public class Zombie extends Creature
 
   void takeHealth()
   {
-    health -= 8;
+    health -= (int) Math.round(CHAINSAW_DAMAGE / Attributes.Frame_Rate);
   }
 
   /**
@@ -224,73 +249,79 @@ public class Zombie extends Creature
   }
 
   /**
-   * Creates a cylinder that is placed around the zombie mesh. This is
-   * used for collision detection. It is given
-   * the initial x and z coordinates of the spawn point on the game map.
-   *
-   * @param cellSize The size of cells on the game map.
+   * @return Which way the zombie mesh should face, in degrees.
    */
-  private Cylinder createZombieHitbox(int cellSize)
+  public double getFacing()
   {
-    Cylinder cylinder = new Cylinder(.2, 1);
-    cylinder.setTranslateX(xPos * cellSize);
-    cylinder.setTranslateZ(zPos * cellSize);
-    return cylinder;
+    return facing;
   }
 
   /**
    * This method is called every frame by the animation timer to move the zombie
    * forward in the current direction it's traveling which is determined by the
    * current angle value. It is not called when the zombie is stopped against a
-   * wall or other obstacle.
+   * wall or other obstacle. The zombie stops at the first wall in the way
+   * instead of moving into it.
    */
-  private void moveTwoDZombie(double angle, double zombieWalkingSpeed, Circle zombieCirc)
+  private void moveTwoDZombie(double angle, double zombieWalkingSpeed)
   {
+    // The speed is in pixels on the 2D board, and the zombie is moved in tiles.
+    double cellSize = ZombieBoardRenderer.cellSize;
     double cosTransform = Math.cos(angle * (Math.PI / 180));
     double sinTransform = Math.sin(angle * (Math.PI / 180));
-    double movementAmountY = zombieCirc.getCenterY() + (zombieWalkingSpeed * (cosTransform));
-    double movementAmountX = zombieCirc.getCenterX() + (zombieWalkingSpeed * (sinTransform));
-    if (movementAmountX > 0 && movementAmountY > 0 && movementAmountX < ZombieBoardRenderer.boardWidth * ZombieBoardRenderer.cellSize && movementAmountY < ZombieBoardRenderer.boardWidth * ZombieBoardRenderer.cellSize)
+    double movementAmountY = zPos + (zombieWalkingSpeed / cellSize * (cosTransform));
+    double movementAmountX = xPos + (zombieWalkingSpeed / cellSize * (sinTransform));
+    if (movementAmountX > 0 && movementAmountY > 0 && movementAmountX < ZombieBoardRenderer.boardWidth && movementAmountY < ZombieBoardRenderer.boardWidth)
     {
-      zombieCirc.setCenterY(movementAmountY);
-      zombieCirc.setCenterX(movementAmountX);
+      hitWall = entityManager.moveAgainstWalls(xPos, zPos, twoDSize / cellSize, movementAmountX - xPos, movementAmountY - zPos, newPosition);
+      xPos = newPosition[0];
+      zPos = newPosition[1];
     }
+    entityManager.zombieMoved(this);
   }
 
   /**
    * Moves the zombie forward in a direction determined by the current angle in
-   * a 3D environment.
+   * a 3D environment. The zombie stops at the first wall in the way instead of
+   * moving into it, and slides along it with the rest of the move. Any zombies
+   * crowding it then push it aside by up to the same speed, which doesn't
+   * count as running into a wall if it pushes the zombie against one.
    */
-  private void moveThreeDZombie(double angle, double zombieWalkingSpeed, Cylinder zombieCylinder, boolean engaged)
+  private void moveThreeDZombie(double angle, double zombieWalkingSpeed, boolean engaged)
   {
-    lastX = zombieCylinder.getTranslateX();
-    lastZ = zombieCylinder.getTranslateZ();
-
+    // The speed is per second, so only a tick's worth of it is moved.
+    double step = zombieWalkingSpeed / Attributes.Frame_Rate;
     double cosTransform = Math.cos(angle * (Math.PI / 180));
     double sinTransform = Math.sin(angle * (Math.PI / 180));
-    double movementAmountZ = zombieCylinder.getTranslateZ() + (zombieWalkingSpeed * (cosTransform));
-    double movementAmountX = zombieCylinder.getTranslateX() + (zombieWalkingSpeed * (sinTransform));
-    if (movementAmountX > 0 && movementAmountZ > 0 && movementAmountX < entityManager.zombieHouse.boardWidth && movementAmountZ < entityManager.zombieHouse.boardHeight)
+    double movementAmountZ = zPos + (step * (cosTransform));
+    double movementAmountX = xPos + (step * (sinTransform));
+    if (movementAmountX > 0 && movementAmountZ > 0 && movementAmountX < entityManager.getGameBoard()[0].length && movementAmountZ < entityManager.getGameBoard().length)
     {
-      zombieCylinder.setTranslateZ(movementAmountZ);
-      zombieCylinder.setTranslateX(movementAmountX);
-      double angleToPlayer = getAngleToPlayer();
-      for (int i = 0; i < zombieMesh.length; i++)
-      {
-        zombieMesh[i].setTranslateZ(movementAmountZ);
-        zombieMesh[i].setTranslateX(movementAmountX);
-        if (!engaged)
+      hitWall = entityManager.moveAgainstWalls(xPos, zPos, HITBOX_RADIUS, movementAmountX - xPos, movementAmountZ - zPos, newPosition);
+      if (Attributes.Zombie_Separation)
+      {
+        if (neighbours.length != Attributes.Zombie_Max_Neighbours + 1)
         {
-          zombieMesh[i].setRotate(angleToPlayer);
+          neighbours = new int[Attributes.Zombie_Max_Neighbours + 1];
         }
-        else
+        entityManager.findSeparation(this, neighbours, separation);
+        if (separation[0] != 0 || separation[1] != 0)
         {
-          zombieMesh[i].setRotate(angle + 180);
+          entityManager.moveAgainstWalls(newPosition[0], newPosition[1], HITBOX_RADIUS,
+              step * separation[0], step * separation[1], newPosition);
         }
       }
+      xPos = newPosition[0];
+      zPos = newPosition[1];
+      if (!engaged)
+      {
+        facing = getAngleToPlayer();
+      }
+      else
+      {
+        facing = angle + 180;
+      }
     }
-    xPos = zombieCylinder.getTranslateX();
-    zPos = zombieCylinder.getTranslateZ();
   }
 
   /**
@@ -302,8 +333,8 @@ public class Zombie extends Creature
   private double getAngleToPlayer()
   {
 
-    double xDiff = entityManager.player.boundingCircle.getTranslateX() - ZOMBIE_HITBOX.getTranslateX();
-    double zDiff = entityManager.player.boundingCircle.getTranslateZ() - ZOMBIE_HITBOX.getTranslateZ();
+    double xDiff = entityManager.player.xPos - xPos;
+    double zDiff = entityManager.player.zPos - zPos;
 
     if (zDiff < 0)
     {
@@ -321,21 +352,10 @@ public class Zombie extends Creature
     angle = rand.nextInt(360);
   }
 
-  /**
-   * Stops the zombie on the 3D game map when it has hit an obstacle.
-   */
-  private void stopThreeDZombie()
-  {
-    ZOMBIE_HITBOX.setTranslateZ(ZOMBIE_HITBOX.getTranslateZ());
-    ZOMBIE_HITBOX.setTranslateX(ZOMBIE_HITBOX.getTranslateX());
-  }
-
   /**
    * When the zombie hits an obstacle, this is called to reverse the direction
-   * of the angle. This is done since in the animation timer there is a piece of
-   * code that moves the zombie out of the obstacle a very small amount in the
-   * reverse direction, and then a random angle is selected for the zombie to
-   * travel in.
+   * of the angle, so it faces away from the obstacle until a random angle is
+   * selected for the zombie to travel in.
    */
   private void adjustAngle()
   {
@@ -394,7 +414,7 @@ public class Zombie extends Creature
   private void moveTowardPlayer(double zombieWalkingSpeed)
   {
     findAngle();
-    moveThreeDZombie(angle, zombieWalkingSpeed, ZOMBIE_HITBOX, false);
+    moveThreeDZombie(angle, zombieWalkingSpeed, false);
   }
 
   /**
@@ -427,7 +447,7 @@ public class Zombie extends Creature
         findNewPath.set(false);
       }
       lastAngle = angle;
-      moveTwoDZombie(angle, zombieWalkingSpeed, zombieCirc);
+      moveTwoDZombie(angle, zombieWalkingSpeed);
     }
   }
 
@@ -456,53 +476,48 @@ public class Zombie extends Creature
   }
 
   /**
-   * This method is called every time the animation time is called. A collision
-   * is checked for. If the zombie has collided with an obstacle, while the
-   * zombie is collided with that obstacle, move the zombie in the opposite
-   * direction out of that obstacle. If there is no collision, simply keep
-   * moving the zombie in the appropriate direction. Also, get the current
-   * position of the zombie for purposes of pathfinding. Check to see where the
-   * zombie is in relation to the center of the tile, and adjust accordingly to
-   * keep the zombie centered as it moves toward the player. This is to ensure
-   * that the zombie moves in the right directions at the right times. Without
-   * doing these checks, the zombie might move in a direction prematurely and
-   * needlessly hit obstacles. After these checks are done, the findPathToPlayer
-   * method is called to find the shortest path to the player.
-   *
+   * Moves the zombie for one tick. This is the same as calling think() and then
+   * apply(), and is here for anything that moves a single zombie on its own.
    */
   @Override
   public void tick()
   {
+    think();
+    apply();
+  }
+
+  /**
+   * The first half of a tick. A collision is checked for. If the zombie ran
+   * into an obstacle on its last move, it is stopped and turned around. The
+   * zombie never moves into a wall, so it never has to be moved back out of
+   * one. If there is no collision, simply keep moving the zombie in the
+   * appropriate direction, or along the path it recorded if it has one.
+   *
+   * Only this zombie is changed here. The player, the board and the other
+   * zombies are only read, and the other zombies are read from the zombie
+   * store, which still holds where they were at the end of the last tick. This
+   * lets the entity manager think for all of the zombies at the same time.
+   */
+  void think()
+  {
+    lastX = xPos;
+    lastZ = zPos;
     //if the zombie does not have a path then it has to make decisions
     if (entityManager.player.getNumDeaths() == 0 || locationOnPath >= pathTaken.size() || !engaged)
     {
       hasPath = false;
       takeHealth = 0;
-      if (entityManager.getWallCollision(ZOMBIE_HITBOX) != null && !angleAdjusted.get())
+      if (hitWall && !angleAdjusted.get())
       {
+        hitWall = false;
         if (!collisionJustDetected.get())
         {
           collisionDetected.set(true);
           collisionJustDetected.set(true);
-          stopThreeDZombie();
           adjustAngle();
-          // Move the zombie out of the bounds of the obstacle.
           if (goingAfterPlayer.get())
           {
-            while (entityManager.getWallCollision(ZOMBIE_HITBOX) != null)
-            {
-              moveThreeDZombie(angle, zombieWalkingSpeed, ZOMBIE_HITBOX, false);
-            }
-            double currentX = ZOMBIE_HITBOX.getTranslateX();
-            double currentZ = ZOMBIE_HITBOX.getTranslateZ();
-            checkForCornerTile(entityManager.zombieHouse.getGameBoard()[(int) Math.floor(currentZ)][(int) Math.floor(currentX)]);
-          }
-          else
-          {
-            while (entityManager.getWallCollision(ZOMBIE_HITBOX) != null)
-            {
-              moveThreeDZombie(angle, zombieWalkingSpeed, ZOMBIE_HITBOX, false);
-            }
+            checkForCornerTile(entityManager.getGameBoard()[(int) Math.floor(zPos)][(int) Math.floor(xPos)]);
           }
         }
       }
@@ -510,7 +525,7 @@ public class Zombie extends Creature
       {
         if (!goingAfterPlayer.get() && !isMasterZombie)
         {
-          moveThreeDZombie(angle, zombieWalkingSpeed, ZOMBIE_HITBOX, false);
+          moveThreeDZombie(angle, zombieWalkingSpeed, false);
         }
         else if (!isMasterZombie && goingAfterPlayer.get())
         {
@@ -518,15 +533,49 @@ public class Zombie extends Creature
         }
         else if (isMasterZombie && !goingAfterPlayer.get())
         {
-          moveThreeDZombie(angle, masterZombieSpeed, ZOMBIE_HITBOX, false);
+          moveThreeDZombie(angle, masterZombieSpeed, false);
         }
         else if (isMasterZombie && goingAfterPlayer.get())
         {
           moveTowardPlayer(masterZombieSpeed);
         }
       }
-      double currentX = ZOMBIE_HITBOX.getTranslateX();
-      double currentZ = ZOMBIE_HITBOX.getTranslateZ();
+    }
+    //the zombie has a path and it needs to follow it
+    else
+    {
+      hasPath = true;
+      if (!isMasterZombie)
+      {
+        moveThreeDZombie(pathTaken.get(locationOnPath).getAngle(), zombieWalkingSpeed, true);
+      }
+      else
+      {
+        moveThreeDZombie(pathTaken.get(locationOnPath).getAngle(), masterZombieSpeed, true);
+      }
+    }
+  }
+
+  /**
+   * The second half of a tick, done for one zombie at a time after every
+   * zombie has thought. The zombie's new position is put in the zombie store.
+   * If the zombie is making its own decisions, get the current position of the
+   * zombie for purposes of pathfinding. Check to see where the zombie is in
+   * relation to the center of the tile, and adjust accordingly to keep the
+   * zombie centered as it moves toward the player. This is to ensure that the
+   * zombie moves in the right directions at the right times. Without doing
+   * these checks, the zombie might move in a direction prematurely and
+   * needlessly hit obstacles. After these checks are done, the
+   * findPathToPlayer method is called to find the shortest path to the player,
+   * and the step is played and recorded.
+   */
+  void apply()
+  {
+    entityManager.zombieMoved(this);
+    if (!hasPath)
+    {
+      double currentX = xPos;
+      double currentZ = zPos;
       if (angle == 180)
       {
         if (currentZ > (Math.floor(currentZ) + .5))
@@ -599,33 +648,19 @@ public class Zombie extends Creature
           currentZ++;
         }
       }
-      if (currentX >= entityManager.zombieHouse.getGameBoard().length)
+      if (currentX >= entityManager.getGameBoard().length)
       {
         currentX--;
       }
-      if (currentZ >= entityManager.zombieHouse.getGameBoard().length)
+      if (currentZ >= entityManager.getGameBoard().length)
       {
         currentZ--;
       }
-      Tile currentTile = entityManager.zombieHouse.getGameBoard()[(int) currentZ][(int) currentX];
-      findPathToPlayer(currentTile);/** @todo look here*/
+      findPathToPlayer(entityManager.tileGraph.getId((int) currentZ, (int) currentX));/** @todo look here*/
       updateDistance();
       //adds EVERY step taken to path. There'll be many repeats because it records how long player stays there
       pathTaken.add(new CreaturePathInfo((float) xPos, (float) zPos, (float) angle, didAttack, isDeadInPath));
     }
-    //the zombie has a path and it needs to follow it
-    else
-    {
-      hasPath = true;
-      if (!isMasterZombie)
-      {
-        moveThreeDZombie(pathTaken.get(locationOnPath).getAngle(), zombieWalkingSpeed, ZOMBIE_HITBOX, true);
-      }
-      else
-      {
-        moveThreeDZombie(pathTaken.get(locationOnPath).getAngle(), masterZombieSpeed, ZOMBIE_HITBOX, true);
-      }
-    }
     locationOnPath++;
     if (locationOnPath == pathTaken.size() - 1) engaged = false;
   }
@@ -636,31 +671,18 @@ public class Zombie extends Creature
    */
   public void tick2d()
   {
-    if (entityManager.checkTwoD(zombieCirc) && !angleAdjusted.get())
+    if (hitWall && !angleAdjusted.get())
     {
+      hitWall = false;
       if (!collisionJustDetected.get())
       {
         collisionDetected.set(true);
         collisionJustDetected.set(true);
-        stopThreeDZombie();
         adjustAngle();
-        // Move the zombie out of the bounds of the obstacle.
         if (goingAfterPlayer.get())
         {
-          while (entityManager.checkTwoD(zombieCirc))
-          {
-            moveTwoDZombie(angle, twoDSpeed, zombieCirc);
-          }
-          double currentXVal = zombieCirc.getCenterX() / ZombieBoardRenderer.cellSize;
-          double currentZVal = zombieCirc.getCenterY() / ZombieBoardRenderer.cellSize;
-          checkForCornerTile(ZombieBoardRenderer.gameBoard[(int) currentZVal][(int) currentXVal]);
-        }
-        else
-        {
-          while (entityManager.checkTwoD(zombieCirc))
-          {
-            moveTwoDZombie(angle, twoDSpeed, zombieCirc);
-          }
+          checkForCornerTile(ZombieBoardRenderer.gameBoard[(int) zPos][(int) xPos]);
+          entityManager.zombieMoved(this);
         }
       }
     }
@@ -668,7 +690,7 @@ public class Zombie extends Creature
     {
       if (!goingAfterPlayer.get() && !isMasterZombie)
       {
-        moveTwoDZombie(angle, twoDSpeed, zombieCirc);
+        moveTwoDZombie(angle, twoDSpeed);
       }
       else if (!isMasterZombie && goingAfterPlayer.get())
       {
@@ -676,15 +698,15 @@ public class Zombie extends Creature
       }
       else if (isMasterZombie && !goingAfterPlayer.get())
       {
-        moveTwoDZombie(angle, masterZombie2dSpeed, zombieCirc);
+        moveTwoDZombie(angle, masterZombie2dSpeed);
       }
       else if (isMasterZombie && goingAfterPlayer.get())
       {
         moveTowardPlayerTwoD(masterZombie2dSpeed);
       }
     }
-    double currentX = zombieCirc.getCenterX() / ZombieBoardRenderer.cellSize;
-    double currentY = zombieCirc.getCenterY() / ZombieBoardRenderer.cellSize;
+    double currentX = xPos;
+    double currentY = zPos;
     if (!collisionDetected.get() && Math.abs(angle) == 180)
     {
       if (currentY > (Math.floor(currentY) + .5))
@@ -765,50 +787,52 @@ public class Zombie extends Creature
     {
       currentY--;
     }
-    Tile currentTile = ZombieBoardRenderer.gameBoard[(int) currentY][(int) currentX];
-    findPathToPlayer(currentTile);
+    findPathToPlayer(entityManager.tileGraph.getId((int) currentY, (int) currentX));
   }
 
   /**
    * This method checks to see that the current tile where the zombie is located
-   * is in the tile graph. If so, the player position is gotten, and the
+   * is on the tile graph. If so, the player position is gotten, and the
    * appropriate methods are called to find the shortest path to the player.
    * Only the zombies that are within a Manhattan distance of 20 to the player
    * call the pathfinding method.
    *
-   * @param currentTile The current tile where the zombie is.
+   * @param zombieTile The id of the current tile where the zombie is.
    */
-  private void findPathToPlayer(Tile currentTile)
+  private void findPathToPlayer(int zombieTile)
   {
-    if (TileGraph.tileGraph.containsKey(currentTile))
+    TileGraph tileGraph = entityManager.tileGraph;
+    if (zombieTile != TileGraph.NO_TILE)
     {
-      GraphNode zombieNode = TileGraph.tileGraph.get(currentTile);
-      Tile zombieTile = zombieNode.nodeTile;
-      GraphNode playerNode = null;
+      int playerTile;
       if (!twoDBoard)
       {
-        playerNode = entityManager.player.getCurrentNode();
+        playerTile = entityManager.player.getCurrentNode();
       }
-      else if (twoDBoard)
+      else
       {
-        playerNode = entityManager.player.getCurrent2dNode();
+        playerTile = entityManager.player.getCurrent2dNode();
         calcPath.twoD = true;
       }
-      Tile playerTile = playerNode.nodeTile;
-      if (calcPath.findDistance(zombieTile, playerTile) <= 20 || (isMasterZombie && masterZombieChasePlayer.get()))
+      if (playerTile == TileGraph.NO_TILE)
+      {
+        return;
+      }
+      if (tileGraph.manhattanDistance(zombieTile, playerTile) <= 20 || (isMasterZombie && masterZombieChasePlayer.get()))
       {
-        if (!zombieTile.isWall)
+        if (tileGraph.isWalkable(zombieTile))
         {
-          calcPath.findPath(zombieTile, playerTile, zombieNode);
+          calcPath.findPath(zombieTile, playerTile);
         }
-        if (zombieTile.isWall)
+        else
         {
           calcPath.distanceToPlayer = 30;
         }
       }
-      else if (calcPath.findDistance(zombieTile, playerTile) > 20)
+      else
       {
         goingAfterPlayer.set(false);
+        calcPath.stopChasing();
         calcPath.distanceToPlayer = 30;
         if (twoDBoard && calcPath.oldPath.size() >= 1)
         {
@@ -823,6 +847,7 @@ public class Zombie extends Creature
       else
       {
         goingAfterPlayer.set(false);
+        calcPath.stopChasing();
       }
     }
   }
@@ -837,21 +862,10 @@ public class Zombie extends Creature
    */
   private void checkForCornerTile(Tile currentTile)
   {
-    if (twoDBoard)
+    if (currentTile.wallNE || currentTile.wallNW || currentTile.wallSW || currentTile.wallSE)
     {
-      if (currentTile.wallNE || currentTile.wallNW || currentTile.wallSW || currentTile.wallSE)
-      {
-        zombieCirc.setCenterX(currentTile.xPos * ZombieBoardRenderer.cellSize);
-        zombieCirc.setCenterY(currentTile.zPos * ZombieBoardRenderer.cellSize);
-      }
-    }
-    else
-    {
-      if (currentTile.wallNE || currentTile.wallNW || currentTile.wallSW || currentTile.wallSE)
-      {
-        ZOMBIE_HITBOX.setTranslateZ(currentTile.zPos);
-        ZOMBIE_HITBOX.setTranslateX(currentTile.xPos);
-      }
+      xPos = currentTile.xPos;
+      zPos = currentTile.zPos;
     }
   }
 
@@ -877,13 +891,13 @@ public class Zombie extends Creature
   /**
    * Calculates Distance for zombies.
    *
-   * @return The distance between lastX/Z and ZOMBIE_HITBOX.getTranslateX/Z
+   * @return The distance between lastX/Z and xPos/zPos
    */
   @Override
   public double calculateDistance()
   {
-    double xDist = ZOMBIE_HITBOX.getTranslateX() - lastX;
-    double zDist = ZOMBIE_HITBOX.getTranslateZ() - lastZ;
+    double xDist = xPos - lastX;
+    double zDist = zPos - lastZ;
     return Math.sqrt((xDist * xDist) + (zDist * zDist));
   }
 
@@ -894,23 +908,19 @@ public class Zombie extends Creature
   {
     health = fullHealth;
     goingAfterPlayer.set(false);//idk yet
+    calcPath.stopChasing();
     xPos = START_X;
     zPos = START_Z;
     row = START_ROW;
     col = START_COL;
     tile.xPos = xPos;
     tile.zPos = zPos;
-    ZOMBIE_HITBOX.setTranslateX(xPos);
-    ZOMBIE_HITBOX.setTranslateZ(zPos);
+    lastX = xPos;
+    lastZ = zPos;
+    entityManager.zombieMoved(this);
     locationOnPath = 0;
     takeHealth = 1;
-    for (int i = 0; i < zombieMesh.length; i++)
-    {
-      zombieMesh[i].setTranslateX(xPos);
-      zombieMesh[i].setTranslateZ(zPos);
-      //zombieMesh[i].setRotate(angleToPlayer);
-    }
-    findPathToPlayer(tile);
+    findPathToPlayer(entityManager.tileGraph.getId((int) START_Z, (int) START_X));
   }
 
   /**
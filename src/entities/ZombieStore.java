@@ -0,0 +1,295 @@
+package entities;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the positions of the zombies on the board packed together in arrays,
+ * one slot per zombie, so loops that look at a lot of zombies at once (like
+ * finding the ones that touch the player, the chainsaw or each other) read
+ * through a few arrays instead of jumping between zombie objects.
+ *
+ * Each zombie on the board has a handle, which is its slot in the arrays. A
+ * zombie keeps its handle until it is taken off the board, so the handle can
+ * be held on to by anything that needs to find the zombie again, and
+ * getZombie gives back the zombie for a handle. The slots of zombies that are
+ * taken off are reused.
+ *
+ * The store also keeps track of which tile each zombie is on, so questions
+ * like "which zombies are close to the player" only have to look at the
+ * zombies on the few tiles around the player. Each tile has a list of the
+ * zombies on it, linked through arrays of handles, so adding, removing and
+ * moving a zombie between tiles are all done in constant time without making
+ * any objects.
+ *
+ * Positions are in tiles, with x along the second index of the board and z
+ * along the first, the same as the zombies' positions. The Zombie objects
+ * still hold their own positions, and their slots are updated once a tick,
+ * after all of the zombies have moved. While the zombies are moving, the store
+ * still holds where every zombie was at the end of the last tick, so zombies
+ * that look at each other see the same thing whatever order they move in.
+ */
+class ZombieStore
+{
+  // A handle that doesn't belong to any zombie.
+  static final int NO_HANDLE = -1;
+
+  private final int width;
+  private final int height;
+  // The first zombie on each tile.
+  private final int[] firstInCell;
+
+  // One slot for each handle.
+  double[] x;
+  double[] z;
+  private int[] cell;
+  private int[] nextInCell;
+  private int[] previousInCell;
+  private Zombie[] zombies;
+
+  // Slots that aren't used, and how many of them there are.
+  private int[] free;
+  private int freeCount = 0;
+  // How many slots have ever been handed out.
+  private int used = 0;
+
+  // The handles found by the last call to findNear.
+  private int[] nearby = new int[16];
+
+  /**
+   * @param width  The length of the second index of the board.
+   * @param height The length of the first index of the board.
+   */
+  ZombieStore(int width, int height)
+  {
+    this.width = width;
+    this.height = height;
+    firstInCell = new int[width * height];
+    Arrays.fill(firstInCell, NO_HANDLE);
+    x = new double[16];
+    z = new double[16];
+    cell = new int[16];
+    nextInCell = new int[16];
+    previousInCell = new int[16];
+    zombies = new Zombie[16];
+    free = new int[16];
+  }
+
+  /**
+   * Gives a zombie a handle and puts it on the tile at its position. Nothing
+   * is done if it already has a handle.
+   *
+   * @param zombie The zombie to add.
+   */
+  void add(Zombie zombie)
+  {
+    if (zombie.handle != NO_HANDLE)
+    {
+      return;
+    }
+    int handle;
+    if (freeCount > 0)
+    {
+      handle = free[--freeCount];
+    }
+    else
+    {
+      if (used == x.length)
+      {
+        grow();
+      }
+      handle = used++;
+    }
+    zombie.handle = handle;
+    zombies[handle] = zombie;
+    x[handle] = zombie.xPos;
+    z[handle] = zombie.zPos;
+    link(handle, cellOf(handle));
+  }
+
+  /**
+   * Takes a zombie out of the store and frees its handle. Nothing is done if
+   * it doesn't have a handle.
+   *
+   * @param zombie The zombie to remove.
+   */
+  void remove(Zombie zombie)
+  {
+    int handle = zombie.handle;
+    if (handle == NO_HANDLE)
+    {
+      return;
+    }
+    unlink(handle);
+    zombies[handle] = null;
+    zombie.handle = NO_HANDLE;
+    free[freeCount++] = handle;
+  }
+
+  /**
+   * Copies a zombie's position into its slot, and moves it to the tile it is
+   * on now. This should be called every time the zombie moves.
+   *
+   * @param zombie The zombie that moved.
+   */
+  void update(Zombie zombie)
+  {
+    int handle = zombie.handle;
+    if (handle == NO_HANDLE)
+    {
+      return;
+    }
+    x[handle] = zombie.xPos;
+    z[handle] = zombie.zPos;
+    int newCell = cellOf(handle);
+    if (newCell != cell[handle])
+    {
+      unlink(handle);
+      link(handle, newCell);
+    }
+  }
+
+  /**
+   * @param handle The handle of a zombie in the store.
+   * @return The zombie with that handle.
+   */
+  Zombie getZombie(int handle)
+  {
+    return zombies[handle];
+  }
+
+  /**
+   * Finds the zombies that are on any tile within a distance of a point, up to
+   * a most. The zombies found can be further away than the distance, since
+   * only tiles are checked, but no zombie closer than the distance is missed
+   * unless the most was reached.
+   *
+   * @param x        The x position of the point.
+   * @param z        The z position of the point.
+   * @param distance How far from the point to look.
+   * @param most     The most zombies to find.
+   * @return How many were found. Their handles are given by getNearby.
+   */
+  int findNear(double x, double z, double distance, int most)
+  {
+    int found = 0;
+    int firstRow = Math.max(0, (int) Math.floor(z - distance));
+    int lastRow = Math.min(height - 1, (int) Math.floor(z + distance));
+    int firstCol = Math.max(0, (int) Math.floor(x - distance));
+    int lastCol = Math.min(width - 1, (int) Math.floor(x + distance));
+    for (int row = firstRow; row <= lastRow; row++)
+    {
+      for (int col = firstCol; col <= lastCol; col++)
+      {
+        for (int handle = firstInCell[row * width + col]; handle != NO_HANDLE; handle = nextInCell[handle])
+        {
+          if (found == most)
+          {
+            return found;
+          }
+          if (found == nearby.length)
+          {
+            nearby = Arrays.copyOf(nearby, found * 2);
+          }
+          nearby[found++] = handle;
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * The same as the other findNear, but the handles are put in the given
+   * array, and no more are found than fit in it. Nothing in the store is
+   * changed, so this can be called by more than one thread at a time as long
+   * as no zombie is added, removed or updated while they are looking.
+   *
+   * @param x        The x position of the point.
+   * @param z        The z position of the point.
+   * @param distance How far from the point to look.
+   * @param handles  Filled with the handles of the zombies found.
+   * @return How many were found.
+   */
+  int findNear(double x, double z, double distance, int[] handles)
+  {
+    int found = 0;
+    int firstRow = Math.max(0, (int) Math.floor(z - distance));
+    int lastRow = Math.min(height - 1, (int) Math.floor(z + distance));
+    int firstCol = Math.max(0, (int) Math.floor(x - distance));
+    int lastCol = Math.min(width - 1, (int) Math.floor(x + distance));
+    for (int row = firstRow; row <= lastRow; row++)
+    {
+      for (int col = firstCol; col <= lastCol; col++)
+      {
+        for (int handle = firstInCell[row * width + col]; handle != NO_HANDLE; handle = nextInCell[handle])
+        {
+          if (found == handles.length)
+          {
+            return found;
+          }
+          handles[found++] = handle;
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * @param index Which of the zombies found by the last findNear to get.
+   * @return The handle of that zombie.
+   */
+  int getNearby(int index)
+  {
+    return nearby[index];
+  }
+
+  private int cellOf(int handle)
+  {
+    int row = (int) Math.floor(z[handle]);
+    int col = (int) Math.floor(x[handle]);
+    row = Math.max(0, Math.min(height - 1, row));
+    col = Math.max(0, Math.min(width - 1, col));
+    return row * width + col;
+  }
+
+  private void link(int handle, int newCell)
+  {
+    cell[handle] = newCell;
+    previousInCell[handle] = NO_HANDLE;
+    nextInCell[handle] = firstInCell[newCell];
+    if (firstInCell[newCell] != NO_HANDLE)
+    {
+      previousInCell[firstInCell[newCell]] = handle;
+    }
+    firstInCell[newCell] = handle;
+  }
+
+  private void unlink(int handle)
+  {
+    int previous = previousInCell[handle];
+    int next = nextInCell[handle];
+    if (previous != NO_HANDLE)
+    {
+      nextInCell[previous] = next;
+    }
+    else
+    {
+      firstInCell[cell[handle]] = next;
+    }
+    if (next != NO_HANDLE)
+    {
+      previousInCell[next] = previous;
+    }
+  }
+
+  private void grow()
+  {
+    int size = x.length * 2;
+    x = Arrays.copyOf(x, size);
+    z = Arrays.copyOf(z, size);
+    cell = Arrays.copyOf(cell, size);
+    nextInCell = Arrays.copyOf(nextInCell, size);
+    previousInCell = Arrays.copyOf(previousInCell, size);
+    zombies = Arrays.copyOf(zombies, size);
+    free = Arrays.copyOf(free, size);
+  }
+}
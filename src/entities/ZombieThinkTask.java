@@ -0,0 +1,56 @@
+package entities;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import game_engine.Attributes;
+
+/**
+ * Has a range of zombies think for one tick on the fork join pool. If there
+ * are more than Attributes.Zombie_Parallel_Leaf_Size zombies in the range, it
+ * is split in half and the two halves are done at the same time, so each
+ * thread ends up with a run of zombies that is worth the cost of handing it
+ * out.
+ *
+ * Thinking only changes the zombie doing it, and reads the player, the board
+ * and the zombie store, none of which change until every zombie is done, so
+ * the zombies don't need to wait on each other. Anything that touches shared
+ * state, like pathfinding, sounds and the zombie store, is left for
+ * Zombie.apply, which the entity manager calls on one thread afterwards.
+ */
+class ZombieThinkTask extends RecursiveAction
+{
+  private static final long serialVersionUID = 1L;
+
+  private final List<Zombie> zombies;
+  private final int from;
+  private final int to;
+
+  /**
+   * @param zombies The zombies on the board. This isn't changed while the
+   *                task runs.
+   * @param from    The index of the first zombie to think for.
+   * @param to      One past the index of the last zombie to think for.
+   */
+  ZombieThinkTask(List<Zombie> zombies, int from, int to)
+  {
+    this.zombies = zombies;
+    this.from = from;
+    this.to = to;
+  }
+
+  @Override
+  protected void compute()
+  {
+    if (to - from <= Math.max(1, Attributes.Zombie_Parallel_Leaf_Size))
+    {
+      for (int i = from; i < to; i++)
+      {
+        zombies.get(i).think();
+      }
+      return;
+    }
+    int middle = (from + to) >>> 1;
+    invokeAll(new ZombieThinkTask(zombies, from, middle), new ZombieThinkTask(zombies, middle, to));
+  }
+}
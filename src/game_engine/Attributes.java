@@ -7,7 +7,8 @@ package game_engine;
  */
 public class Attributes
 {
-  public static double Frame_Rate = 60; // frames per second
+  public static double Frame_Rate = 60; // game ticks per second, however fast the screen draws
+  public static int Max_Catch_Up_Ticks = 5; // most ticks run in one frame after a slow frame
 
   // Player
   public static double Player_Hearing = 20;
@@ -15,13 +16,43 @@ public class Attributes
   public static double Player_Sprint_Speed = .16;
   public static double Player_Stamina = 5;
   public static double Player_Regen = .2; // regen of stamin per second
-  public static double Player_Rotate_sensitivity = 5; 
+  public static double Player_Rotate_sensitivity = 300; // degrees per second the player turns
+  public static double Chainsaw_Arc = 120; // degrees in front of the player the chainsaw reaches
 
   // Zombie
   public static double Zombie_Smell = 15;
   public static double Max_Zombies = 20;
+  public static boolean Zombie_Separation = true; // zombies push each other apart instead of stacking up
+  public static int Zombie_Max_Neighbours = 6; // most nearby zombies a zombie is pushed by each frame
+  public static boolean Zombie_Parallel_Update = true; // lets the zombies think on more than one thread
+  public static int Zombie_Parallel_Threshold = 12; // fewest zombies on the board before they think on more than one thread
+  public static int Zombie_Parallel_Leaf_Size = 4; // most zombies one thread thinks for before splitting them up
+  public static boolean Zombie_Flow_Field = true; // chasing zombies share one distance map to the player
+  public static boolean Zombie_Jump_Point_Search = false; // used instead of A* when the flow field is off
+  public static boolean Zombie_Landmark_Heuristic = true; // A* guesses distances from landmarks worked out per level
+  public static boolean Zombie_Hierarchical_Master = true; // master zombie plans room to room when the flow field is off
+  public static boolean Zombie_Incremental_Search = false; // each chasing zombie keeps a D* Lite search between ticks
+  public static boolean Zombie_Bounded_Search = true; // zombies stop searching once the player is out of smelling range
+  public static int Path_Node_Budget = 500; // most tiles a bounded search expands before giving up
+  public static boolean Zombie_Path_Cache = true; // zombies asking for the same path share one search
+  public static int Path_Cache_Size = 256; // most path answers kept in the cache
+  public static boolean Zombie_Async_Pathfinding = false; // searches run on worker threads, unless the flow field or incremental search is used
+  public static boolean Zombie_Path_Scheduler = false; // searches wait for a share of the per frame budget
+  public static double Path_Budget_Millis = 2; // time each frame can spend on scheduled searches
   
   // Map
   public static int Map_Width = 40;
   public static int Map_Height = 40;
+
+  /**
+   * Works out how many game ticks make up a number of seconds, at Frame_Rate
+   * ticks a second. This is never less than 1.
+   *
+   * @param seconds The number of seconds.
+   * @return The number of ticks.
+   */
+  public static int secondsToTicks(double seconds)
+  {
+    return (int) Math.max(1, Math.round(seconds * Frame_Rate));
+  }
 }
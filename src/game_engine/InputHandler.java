@@ -21,7 +21,7 @@ class InputHandler
   InputHandler(PerspectiveCamera camera, Player player, ZombieHouse3d zombieHouse3d)
   {
     this.zombieHouse3d = zombieHouse3d;
-    this.camera = player.camera = camera;
+    this.camera = camera;
     this.player = player;
     gameIsPaused = zombieHouse3d.getPaused();
     mouseIsLocked = false;
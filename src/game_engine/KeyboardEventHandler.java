@@ -67,7 +67,6 @@ class KeyboardEventHandler extends InputHandler implements EventHandler<KeyEvent
       }
       if (event.getCode() == KeyCode.F && !gameIsPaused)
       {
-        player.light.setLightOn(!player.lightOn);
         player.lightOn = !player.lightOn;
       }
 //      if (event.getCode() == KeyCode.UP && !gameIsPaused)
@@ -86,7 +85,7 @@ class KeyboardEventHandler extends InputHandler implements EventHandler<KeyEvent
       {
         player.attack();
         player.attacking = true;
-        player.chainsaw.makeRotate();
+        zombieHouse3d.chainsaw.makeRotate();
         zombieHouse3d.playChainsaw();
       }
       if (event.getCode() == KeyCode.P)
@@ -105,7 +104,7 @@ class KeyboardEventHandler extends InputHandler implements EventHandler<KeyEvent
       {
         player.notAttack();
         player.attacking = false;
-        player.chainsaw.unRotate();
+        zombieHouse3d.chainsaw.unRotate();
         zombieHouse3d.pauseChainsaw();
       }
       if (event.getCode() == KeyCode.W)
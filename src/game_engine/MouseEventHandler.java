@@ -58,13 +58,13 @@ class MouseEventHandler extends InputHandler implements EventHandler<MouseEvent>
         {
           player.attack();
           player.attacking = true;
-          player.chainsaw.makeRotate();
+          zombieHouse3d.chainsaw.makeRotate();
           zombieHouse3d.playChainsaw();
         }
         else
         {
           player.attacking = false;
-          player.chainsaw.unRotate();
+          zombieHouse3d.chainsaw.unRotate();
           zombieHouse3d.pauseChainsaw();
         }
       }
@@ -57,7 +57,7 @@ public class Scenes implements EventHandler<ActionEvent>
   Slider playerRegen = new Slider(0, 2, 0.2);
   Slider zombieSmell = new Slider(0, 30, 15);
   Slider maxZombies = new Slider(0, 30, 20);
-  Slider rotateSensitivity = new Slider(0, 20, 5);
+  Slider rotateSensitivity = new Slider(0, 1200, 300);
 
   private ZombieHouse3d threeDGameObject = new ZombieHouse3d(0, this);
   private ZombieBoardRenderer twoDGameObject;
@@ -135,7 +135,7 @@ public class Scenes implements EventHandler<ActionEvent>
     rotateSensitivity.setShowTickMarks(true);
     rotateSensitivity.setSnapToTicks(true);
     rotateSensitivity.setShowTickLabels(true);
-    rotateSensitivity.setMajorTickUnit(4);
+    rotateSensitivity.setMajorTickUnit(240);
 
     playerHearing.valueProperty().addListener(new ChangeListener<Number>()
     {
@@ -8,8 +8,6 @@ import com.interactivemesh.jfx.importer.obj.ObjImportOption;
 import com.interactivemesh.jfx.importer.obj.ObjModelImporter;
 
 import entities.*;
-import graphing.GraphNode;
-import graphing.TileGraph;
 import javafx.animation.AnimationTimer;
 import javafx.scene.CacheHint;
 import javafx.scene.Cursor;
@@ -23,6 +21,7 @@ import javafx.scene.SceneAntialiasing;
 import javafx.scene.SubScene;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.HBox;
 import javafx.scene.media.AudioClip;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
@@ -34,6 +33,8 @@ import javafx.stage.Stage;
 import levels.TextureMaps;
 import levels.Tile;
 import levels.Tile.TileType;
+import sounds.Sound;
+import sounds.SoundManager;
 
 /**
  * @author Atle Olson
@@ -45,8 +46,16 @@ public class ZombieHouse3d
   private PerspectiveCamera camera;
   private Tile playerTile;
   private PointLight light = new PointLight();
+  Chainsaw chainsaw;
   private AnimationTimer gameLoop;
 
+  // What the light was last colored for, so it is only changed when the
+  // player's health changes it.
+  private Player.HealthLight shownHealthLight;
+  private int shownLightHealth;
+  // The meshes of the player's ghosts, by the life they are from.
+  private Node[][] ghostMeshes;
+
   private boolean paused = false;
 
   public int boardWidth;
@@ -55,13 +64,10 @@ public class ZombieHouse3d
   private Box[][] floorDrawingBoard;
   private Box[][] roofDrawingBoard;
 
-  public ArrayList<Box> exits = new ArrayList<>();
+  private ArrayList<Box> exits = new ArrayList<>();
 
   private Group root;
 
-  // The list of walls used for collision detection.
-  public ArrayList<Box> walls = new ArrayList<>();
-
   // list of props used to decorate zombie house
   private ArrayList<Prop> props = new ArrayList<>();
 
@@ -113,8 +119,9 @@ public class ZombieHouse3d
     scene = null;
     camera = null;
     light.setColor(Color.GRAY);
+    chainsaw = null;
+    ghostMeshes = null;
     gameBoard = null;
-    walls.clear();
     exits.clear();
     root.getChildren().clear();
     entityManager = null;
@@ -149,6 +156,8 @@ public class ZombieHouse3d
     {
       entityManager.player.gameIsRunning.set(false);
       entityManager.gameIsRunning.set(false);
+      // Closing the game window ends the program.
+      System.exit(0);
     });
 
     gameLoop = new MainGameLoop();
@@ -199,7 +208,6 @@ public class ZombieHouse3d
    */
   private Parent createContent() throws Exception
   {
-    boolean isWall;
     int numZombies = 0;
     PointLight exitLight;
 
@@ -208,8 +216,7 @@ public class ZombieHouse3d
     root.setCacheHint(CacheHint.SPEED);
 
     // initialize entity manager
-    entityManager = new EntityManager(scenes, root);
-    entityManager.setZombieHouse3d(this);
+    entityManager = new EntityManager(scenes);
     entityManager.createProps();
     entityManager.createZombies(gameBoard, boardHeight, boardWidth);
     numZombies = entityManager.zombies.size();
@@ -224,14 +231,16 @@ public class ZombieHouse3d
     // Initialize player
     if (entityManager.player == null)
     {
-      entityManager.chainsaw = new Chainsaw(3,2);
+      chainsaw = new Chainsaw(3,2);
       //entityManager.prop1 = new Prop1(3, 2);
       light.setColor(Color.GRAY);
-      entityManager.player = new Player(camera, entityManager, light, entityManager.chainsaw);
+      light.setRotationAxis(Rotate.Y_AXIS);
+      entityManager.player = new Player(entityManager);
     }
+    ghostMeshes = new Node[entityManager.getGhosts().length][];
 
     // Lighting
-    root.getChildren().add(entityManager.player.light);
+    root.getChildren().add(light);
 
     // Materials
     TextureMaps.initializeMaps();
@@ -305,71 +314,9 @@ public class ZombieHouse3d
     region3Prop();
     region4Prop();
     dreamRunner();
-    // Spawn zombies on board and create list of wall tiles for
-    // purposes of collision detection.
-    for (int col = 0; col < boardHeight; col++)
-    {
-      for (int row = 0; row < boardWidth; row++)
-      {
-        if (gameBoard[col][row].getType().equals("wall"))
-        {
-          walls.add(floorDrawingBoard[col][row]);
-          entityManager.numTiles++;
-          isWall = true;
-        }
-        else
-        {
-          isWall = false;
-        }
-        // The following code calls the appropriate methods to build the graph
-        // to be used in zombie pathfinding.
-        if (col == 0 && row == 0)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col + 1][row], gameBoard[col][row + 1], gameBoard[col + 1][row + 1], row, col, isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (col == 0 && row == boardWidth - 1)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col + 1][row], gameBoard[col][row - 1], gameBoard[col + 1][row - 1], row, col, isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (col == boardHeight - 1 && row == 0)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col - 1][row], gameBoard[col][row + 1], gameBoard[col - 1][row + 1], row, col, isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (col == boardHeight - 1 && row == boardWidth - 1)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col - 1][row], gameBoard[col][row - 1], gameBoard[col - 1][row - 1], row, col, isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (row == 0 && col != 0 && col != boardHeight - 1)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col + 1][row], gameBoard[col - 1][row], gameBoard[col][row + 1], gameBoard[col + 1][row + 1], gameBoard[col - 1][row + 1], row, col, isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (row == boardWidth - 1 && col != 0 && col != boardHeight - 1)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col + 1][row], gameBoard[col - 1][row], gameBoard[col][row - 1], gameBoard[col + 1][row - 1], gameBoard[col - 1][row - 1], row, col, isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (col == 0 && row != 0 && row != boardWidth - 1)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col + 1][row], gameBoard[col][row + 1], gameBoard[col][row - 1], gameBoard[col + 1][row + 1], gameBoard[col + 1][row - 1], row, col, isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (col == boardHeight - 1 && row != 0 && row != boardWidth - 1)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col][row + 1], gameBoard[col - 1][row], gameBoard[col][row - 1], gameBoard[col - 1][row + 1], gameBoard[col - 1][row - 1], row, col, isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (col >= 1 && col < boardHeight - 1 && row >= 1 && row < boardWidth - 1)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col + 1][row], gameBoard[col - 1][row], gameBoard[col][row + 1], gameBoard[col][row - 1], gameBoard[col + 1][row + 1], gameBoard[col + 1][row - 1], gameBoard[col - 1][row + 1], gameBoard[col - 1][row - 1], row, col, isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-      }
-    }
+    // Build the graph used in zombie pathfinding and the grid of walls used
+    // for collision detection now that the walls are final.
+    entityManager.createGraph(gameBoard);
 
     System.out.println("Number of Zombies: " + entityManager.zombies.size());
     for (Zombie zombie : entityManager.zombies)
@@ -385,7 +332,7 @@ public class ZombieHouse3d
       root.getChildren().addAll(zombie.getMesh());
     }
 
-    root.getChildren().addAll(entityManager.player.chainsaw.getMesh());
+    root.getChildren().addAll(chainsaw.getMesh());
 //    root.getChildren().addAll(entityManager.prop1.getMesh());
     root.getChildren().addAll(entityManager.prop2.getMesh());
     root.getChildren().addAll(entityManager.prop3.getMesh());
@@ -521,20 +468,238 @@ public class ZombieHouse3d
   }
 
   /**
-   * The animation timer used in running the game.
+   * Runs the game at a fixed number of ticks per second, set by Frame_Rate,
+   * however often the screen is drawn. The time since the last frame is
+   * added up, and a tick is run for every whole tick's worth of time, so a
+   * slow frame is caught up on the next one and a fast screen doesn't speed
+   * the game up. No more than Max_Catch_Up_Ticks are run in one frame, so a
+   * long stall doesn't make the game run a burst of ticks. What is left over
+   * is used to draw the entities part of the way to their next tick.
    */
   private class MainGameLoop extends AnimationTimer
   {
+    private long lastFrame = -1;
+    private long timeBehind = 0;
+
+    @Override
+    public void start()
+    {
+      lastFrame = -1;
+      timeBehind = 0;
+      super.start();
+    }
+
     /**
      * Call the appropriate method to update the attributes of the
      * entities in the game.
      */
     public void handle(long now)
     {
-      if (!paused)
+      long tickLength = (long) (1_000_000_000 / Attributes.Frame_Rate);
+      if (paused || lastFrame == -1)
+      {
+        // Time spent paused isn't caught up on.
+        lastFrame = now;
+        timeBehind = 0;
+        return;
+      }
+      timeBehind += now - lastFrame;
+      lastFrame = now;
+
+      int ticks = 0;
+      while (timeBehind >= tickLength && ticks < Attributes.Max_Catch_Up_Ticks)
       {
         entityManager.tick();
+        timeBehind -= tickLength;
+        ticks++;
+        // The tick can end the game, which stops this loop.
+        if (endGameIfOver())
+        {
+          return;
+        }
+      }
+      if (timeBehind >= tickLength)
+      {
+        timeBehind %= tickLength;
+      }
+      drawEntities((double) timeBehind / tickLength);
+    }
+  }
+
+  /**
+   * Stops the game and shows the game over screen if the player died on the
+   * last tick, or the win screen if they found an exit.
+   *
+   * @return True if the game was stopped.
+   */
+  private boolean endGameIfOver()
+  {
+    Player player = entityManager.player;
+    SoundManager soundManager = entityManager.soundManager;
+    boolean over = false;
+    if (player.isDead())
+    {
+      stopGameLoop();
+      soundManager.stopTrack();
+      soundManager.playSoundClip(Sound.death);
+      HBox hBox = new HBox();
+      if (player.getLives() > 0)
+      {
+        hBox.getChildren().addAll(scenes.tryAgainButton, scenes.returnButtonDeath);
+      }
+      else
+      {
+        hBox.getChildren().addAll(scenes.returnButtonDeath);
       }
+      scenes.gameOverRoot.setTop(hBox);
+      scenes.getMain().assignStage(scenes.gameOver);
+      over = true;
+    }
+
+    if (player.foundExit())
+    {
+      soundManager.stopTrack();
+      soundManager.playSoundClip(Sound.achieve);
+      entityManager.dispose();
+      dispose();
+      HBox hBox = new HBox();
+      scenes.updateWinScreen();
+      hBox.getChildren().addAll(scenes.returnButton, scenes.goTo3dGameNextLevel);
+      scenes.winRoot.setTop(hBox);
+      scenes.getMain().assignStage(scenes.win);
+      over = true;
+    }
+    return over;
+  }
+
+  /**
+   * Moves the camera, the chainsaw, the light and the zombie meshes to where
+   * the player and the zombies are in the game. They are drawn part of the
+   * way between where they were before the last tick and where they are now,
+   * so they move smoothly even when the frames don't line up with the ticks.
+   * The meshes of zombies that were put on or taken off of the board are
+   * added or removed first, and the light is colored to show the player's
+   * health.
+   *
+   * @param alpha How far into the next tick this frame is, from 0 to 1.
+   */
+  private void drawEntities(double alpha)
+  {
+    syncZombieMeshes();
+    drawGhosts();
+
+    Player player = entityManager.player;
+    double x = player.getDrawX(alpha);
+    double z = player.getDrawZ(alpha);
+    camera.setTranslateX(x);
+    camera.setTranslateZ(z);
+    camera.setRotate(player.angle);
+    chainsaw.setTranslateX(.45 * Math.sin(Math.toRadians(player.angle)) + x);
+    chainsaw.setTranslateZ(.45 * Math.cos(Math.toRadians(player.angle)) + z - .4);
+    chainsaw.setRotate(player.angle);
+    light.setTranslateX(x);
+    light.setTranslateZ(z);
+    light.setRotate(player.angle - 180);
+    light.setLightOn(player.lightOn);
+    if (player.getHealthLight() != shownHealthLight || player.getLightHealth() != shownLightHealth)
+    {
+      shownHealthLight = player.getHealthLight();
+      shownLightHealth = player.getLightHealth();
+      light.setColor(healthColor(shownHealthLight, shownLightHealth));
+    }
+
+    for (Zombie zombie : entityManager.zombies)
+    {
+      double zombieX = zombie.getDrawX(alpha);
+      double zombieZ = zombie.getDrawZ(alpha);
+      for (Node node : zombie.getMesh())
+      {
+        node.setTranslateX(zombieX);
+        node.setTranslateZ(zombieZ);
+        node.setRotate(zombie.getFacing());
+      }
+    }
+  }
+
+  /**
+   * Adds the meshes of the zombies that were put on the board since the last
+   * frame and removes the meshes of the ones that were taken off. Zombies
+   * split off of another zombie get their mesh the first time they are seen.
+   */
+  private void syncZombieMeshes()
+  {
+    ArrayList<Zombie> changedZombies = entityManager.getChangedZombies();
+    for (Zombie zombie : changedZombies)
+    {
+      if (zombie.getMesh() == null)
+      {
+        zombie.setMesh(loadMeshViews(Feral_Ghoul));
+      }
+      // A zombie can be taken off and put back on in the same frame, so its
+      // mesh is always taken out before it is put back.
+      root.getChildren().removeAll(zombie.getMesh());
+      if (zombie.isOnBoard())
+      {
+        root.getChildren().addAll(zombie.getMesh());
+      }
+    }
+    changedZombies.clear();
+  }
+
+  /**
+   * Moves the meshes of the player's ghosts to where the ghosts are, loading
+   * the mesh of a ghost the first time it is seen. A ghost's mesh is hidden
+   * once it has walked its whole path.
+   */
+  private void drawGhosts()
+  {
+    PlayerGhost[] ghosts = entityManager.getGhosts();
+    for (int i = 0; i < ghosts.length; i++)
+    {
+      if (ghosts[i] == null)
+      {
+        continue;
+      }
+      if (ghostMeshes[i] == null)
+      {
+        ObjModelImporter ghostMesh = new ObjModelImporter();
+        ghostMesh.setOptions(ObjImportOption.NONE);
+        ghostMesh.read("Resources/Meshes/ghost/ghost_s.obj");
+        ghostMeshes[i] = ghostMesh.getImport();
+        ghostMesh.close();
+        for (Node node : ghostMeshes[i])
+        {
+          node.setTranslateY(.6);
+          node.setRotationAxis(Rotate.Y_AXIS);
+        }
+        root.getChildren().addAll(ghostMeshes[i]);
+      }
+      for (Node node : ghostMeshes[i])
+      {
+        node.setTranslateX(ghosts[i].xPos);
+        node.setTranslateZ(ghosts[i].zPos);
+        node.setRotate(ghosts[i].angle);
+        node.setVisible(!ghosts[i].isDead());
+      }
+    }
+  }
+
+  /**
+   * @param healthLight What the light is showing.
+   * @param health      The health the player had when the light changed.
+   * @return The color of the light. It gets redder the more hurt the player
+   * is, and gray at full health.
+   */
+  private static Color healthColor(Player.HealthLight healthLight, int health)
+  {
+    switch (healthLight)
+    {
+      case HURT:
+        return Color.rgb(((Player.MAX_HEALTH + health) / 4), ((health / 50) + 10), ((health / 5) + 10));
+      case HEALING:
+        return Color.rgb((int) ((Player.MAX_HEALTH + health) / 4), (int) (100 - (health / 5)), (int) (100 - (health / 5)));
+      default:
+        return Color.GRAY;
     }
   }
 }
\ No newline at end of file
@@ -0,0 +1,247 @@
+package graphing;
+
+import java.util.Arrays;
+
+/**
+ * A* search over the tiles of a TileGraph. All per-search state lives in
+ * primitive arrays, indexed by tile id, that are allocated once for the board
+ * and reused for every query. Instead of clearing those arrays between
+ * searches, each entry is stamped with the generation of the search that last
+ * wrote it, so an entry from an older search is simply treated as unvisited.
+ * Once constructed, a search does not allocate any memory.
+ *
+ * Every walkable tile has a movementCost of 1, so each move on the graph
+ * costs 1 and the cost of a path is the number of moves on it.
+ *
+ * findPathWithin is the same search with a limit on how long a path it will
+ * look for and how many tiles it will expand. It is meant for questions like
+ * "is the player within smelling distance", where the exact length of a long
+ * path doesn't matter, so it gives up as soon as the answer is known to be
+ * too far instead of searching the rest of the board.
+ */
+public class AStarSearch
+{
+  // Returned by findPath when the goal can't be reached.
+  public static final int NO_PATH = TileGraph.NO_TILE;
+  // Returned by findPathWithin when the goal is further away than the limit,
+  // or the search ran out of expansions before it could tell.
+  public static final int OUT_OF_RANGE = -2;
+
+  private final TileGraph graph;
+  // Used for a tighter guess of the distance to the goal, if they are set.
+  private Landmarks landmarks = null;
+  private int[] goalDistance;
+
+  private final float[] costSoFar;
+  private final int[] cameFrom;
+  private final int[] generationStamp;
+  private final TileHeap open;
+  private int generation = 0;
+
+  private int start = NO_PATH;
+  private int goal = NO_PATH;
+  private boolean goalFound = false;
+  private int expansions = 0;
+
+  /**
+   * Creates the search for the given graph.
+   *
+   * @param graph The graph of the board the zombies are moving on.
+   */
+  public AStarSearch(TileGraph graph)
+  {
+    this.graph = graph;
+    int numTiles = graph.size();
+    costSoFar = new float[numTiles];
+    cameFrom = new int[numTiles];
+    generationStamp = new int[numTiles];
+    open = new TileHeap(numTiles);
+  }
+
+  /**
+   * Sets the landmarks used to guess how far the goal is. Without them the
+   * diagonal distance is used, which knows nothing about the walls in the
+   * way. Either way the paths found are the same, only the number of tiles
+   * expanded to find them changes.
+   *
+   * @param landmarks The landmarks for this search's graph, or null to go
+   *                  back to the diagonal distance.
+   */
+  public void setLandmarks(Landmarks landmarks)
+  {
+    this.landmarks = landmarks;
+    if (landmarks != null)
+    {
+      goalDistance = new int[landmarks.size()];
+    }
+  }
+
+  /**
+   * Finds the shortest path between two tiles.
+   *
+   * @param from The id of the tile the search starts on.
+   * @param to   The id of the tile the search is trying to reach.
+   * @return The number of tiles on the path, counting both the start and the
+   * goal, or NO_PATH if the goal can't be reached.
+   */
+  public int findPath(int from, int to)
+  {
+    return findPathWithin(from, to, Integer.MAX_VALUE, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Finds the shortest path between two tiles, but only if it is no longer
+   * than maxLength. Tiles that can't be on a path that short are never
+   * expanded, and the search stops after maxExpansions tiles.
+   *
+   * @param from          The id of the tile the search starts on.
+   * @param to            The id of the tile the search is trying to reach.
+   * @param maxLength     The most tiles the path can have, counting both ends.
+   * @param maxExpansions The most tiles the search can expand.
+   * @return The number of tiles on the path, NO_PATH if the goal can't be
+   * reached at all, or OUT_OF_RANGE if the path is longer than maxLength or
+   * the search ran out of expansions.
+   */
+  public int findPathWithin(int from, int to, int maxLength, int maxExpansions)
+  {
+    nextGeneration();
+    start = from;
+    goal = to;
+    goalFound = false;
+    expansions = 0;
+    open.clear();
+
+    if (!graph.isWalkable(from) || !graph.isWalkable(to))
+    {
+      return NO_PATH;
+    }
+    // The heuristic never overestimates, so once the best estimate left on
+    // the open list is over the limit, every path left is too.
+    double maxCost = (double) maxLength - 1;
+    boolean cutOff = false;
+    if (landmarks != null)
+    {
+      landmarks.getGoalDistances(to, goalDistance);
+    }
+    visit(from, 0, NO_PATH);
+    open.push(from, estimate(from, to));
+
+    while (!open.isEmpty())
+    {
+      if (open.peekPriority() > maxCost || expansions >= maxExpansions)
+      {
+        cutOff = true;
+        break;
+      }
+      int current = open.pop();
+      if (current == to)
+      {
+        goalFound = true;
+        break;
+      }
+      expansions++;
+      int moves = graph.getMoves(current);
+      float newCost = costSoFar[current] + 1;
+      for (int m = moves; m != 0; m &= m - 1)
+      {
+        int next = graph.getNeighbor(current, TileGraph.nextMove(m));
+        if (generationStamp[next] != generation)
+        {
+          visit(next, newCost, current);
+          open.push(next, newCost + estimate(next, to));
+        }
+        else if (newCost < costSoFar[next])
+        {
+          costSoFar[next] = newCost;
+          cameFrom[next] = current;
+          open.push(next, newCost + estimate(next, to));
+        }
+      }
+    }
+    if (!goalFound)
+    {
+      return cutOff ? OUT_OF_RANGE : NO_PATH;
+    }
+    return (int) costSoFar[to] + 1;
+  }
+
+  /**
+   * @return The number of tiles that were expanded by the last search.
+   */
+  public int getExpansions()
+  {
+    return expansions;
+  }
+
+  /**
+   * Gets the tile right after the start tile on the last path that was
+   * found. This is the tile the zombie should head towards.
+   *
+   * @return The id of the second tile on the path, or NO_PATH if the last
+   * search didn't find a path or the start was already the goal.
+   */
+  public int getFirstStep()
+  {
+    if (!goalFound || goal == start)
+    {
+      return NO_PATH;
+    }
+    int step = goal;
+    while (cameFrom[step] != start)
+    {
+      step = cameFrom[step];
+    }
+    return step;
+  }
+
+  /**
+   * Gets the tile that comes before the given tile on the last path that was
+   * found. Following this from the goal leads back to the start.
+   *
+   * @param id The id of a tile that was reached by the last search.
+   * @return The id of the previous tile, or NO_PATH for the start tile.
+   */
+  public int getCameFrom(int id)
+  {
+    if (generationStamp[id] != generation)
+    {
+      return NO_PATH;
+    }
+    return cameFrom[id];
+  }
+
+  /**
+   * Guesses how many moves it takes to get from a tile to the goal, without
+   * ever guessing too many.
+   */
+  private int estimate(int id, int to)
+  {
+    if (landmarks == null)
+    {
+      return graph.diagonalDistance(id, to);
+    }
+    return landmarks.estimate(id, to, goalDistance);
+  }
+
+  /**
+   * Starts a new generation. Every entry stamped with an older generation is
+   * now treated as unvisited. The stamps only have to be cleared in the very
+   * rare case that the counter wraps around.
+   */
+  private void nextGeneration()
+  {
+    generation++;
+    if (generation == Integer.MAX_VALUE)
+    {
+      Arrays.fill(generationStamp, 0);
+      generation = 1;
+    }
+  }
+
+  private void visit(int id, float cost, int from)
+  {
+    generationStamp[id] = generation;
+    costSoFar[id] = cost;
+    cameFrom[id] = from;
+  }
+}
@@ -0,0 +1,271 @@
+package graphing;
+
+import java.util.Arrays;
+
+/**
+ * An incremental search (D* Lite) for one zombie chasing the player. Most of
+ * the time the player only moves a tile or so between two searches and the
+ * board doesn't change, so instead of starting over every time, this keeps
+ * its search from the last call and only does the work needed to reach the
+ * player's new tile.
+ *
+ * D* Lite searches backwards from its goal, and its start is the end that is
+ * allowed to move. Here the search grows out from the zombie's tile, and the
+ * player's tile is the moving start, so when the player moves the old values
+ * are kept and only the keys are shifted by km. When the zombie moves onto a
+ * new tile everything is thrown away, which is cheap since every value is
+ * stamped with the generation it was written in. This is based on the
+ * optimized version in Koenig and Likhachev, "D* Lite", AAAI 2002.
+ *
+ * Each chasing zombie needs its own DStarLite, since the search state is what
+ * is kept between calls. The arrays are the size of the board, so one should
+ * only be made for a zombie once it starts chasing.
+ */
+public class DStarLite
+{
+  private static final int INFINITY = Integer.MAX_VALUE / 4;
+
+  private final TileGraph graph;
+
+  private final int[] g;
+  private final int[] rhs;
+  private final int[] stamp;
+  private final TileHeap open;
+  private int generation = 0;
+  // Keys are compared by k1 first and then k2. They are stored in the heap
+  // as a single number, k1 * keyScale + k2.
+  private final double keyScale;
+
+  private int root = TileGraph.NO_TILE;
+  private int target = TileGraph.NO_TILE;
+  private int keyModifier = 0;
+
+  private int expansions = 0;
+
+  /**
+   * Creates the search for the given graph.
+   *
+   * @param graph The graph of the board the zombies are moving on.
+   */
+  public DStarLite(TileGraph graph)
+  {
+    this.graph = graph;
+    int numTiles = graph.size();
+    g = new int[numTiles];
+    rhs = new int[numTiles];
+    stamp = new int[numTiles];
+    open = new TileHeap(numTiles);
+    keyScale = numTiles + 1;
+  }
+
+  /**
+   * @return The graph this search was made for.
+   */
+  public TileGraph getGraph()
+  {
+    return graph;
+  }
+
+  /**
+   * Finds the shortest path from the zombie to the player, reusing as much of
+   * the last search as it can.
+   *
+   * @param from The id of the tile the zombie is on.
+   * @param to   The id of the tile the player is on.
+   * @return The number of tiles on the path, counting both ends, or NO_PATH
+   * if the player can't be reached. This is the same value
+   * AStarSearch.findPath returns.
+   */
+  public int findPath(int from, int to)
+  {
+    expansions = 0;
+    if (!graph.isWalkable(from) || !graph.isWalkable(to))
+    {
+      return AStarSearch.NO_PATH;
+    }
+    if (from != root || keyModifier > INFINITY / 4)
+    {
+      restart(from, to);
+    }
+    else if (to != target)
+    {
+      keyModifier += graph.diagonalDistance(target, to);
+      target = to;
+    }
+    computeShortestPath();
+    if (getG(target) >= INFINITY)
+    {
+      return AStarSearch.NO_PATH;
+    }
+    return getG(target) + 1;
+  }
+
+  /**
+   * Gets the tile right after the zombie's tile on the last path that was
+   * found.
+   *
+   * @return The id of the tile the zombie should head towards, or NO_PATH if
+   * there is no path or the zombie is already on the player's tile.
+   */
+  public int getFirstStep()
+  {
+    if (target == TileGraph.NO_TILE || getG(target) >= INFINITY || target == root)
+    {
+      return AStarSearch.NO_PATH;
+    }
+    int step = target;
+    int previous = getCameFrom(step);
+    while (previous != root)
+    {
+      step = previous;
+      previous = getCameFrom(step);
+    }
+    return step;
+  }
+
+  /**
+   * Gets the tile that comes before the given tile on the path from the
+   * zombie. Following this from the player's tile leads back to the zombie.
+   *
+   * @param id The id of a tile the last search found a path to.
+   * @return The id of the previous tile, or NO_PATH for the zombie's tile or
+   * a tile with no path.
+   */
+  public int getCameFrom(int id)
+  {
+    if (id == root || getG(id) >= INFINITY)
+    {
+      return AStarSearch.NO_PATH;
+    }
+    int best = AStarSearch.NO_PATH;
+    int bestCost = getG(id);
+    for (int m = graph.getMoves(id); m != 0; m &= m - 1)
+    {
+      int next = graph.getNeighbor(id, TileGraph.nextMove(m));
+      if (getG(next) < bestCost)
+      {
+        bestCost = getG(next);
+        best = next;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * @return The number of tiles that were expanded by the last call to
+   * findPath.
+   */
+  public int getExpansions()
+  {
+    return expansions;
+  }
+
+  private void restart(int from, int to)
+  {
+    generation++;
+    if (generation == Integer.MAX_VALUE)
+    {
+      Arrays.fill(stamp, 0);
+      generation = 1;
+    }
+    open.clear();
+    root = from;
+    target = to;
+    keyModifier = 0;
+    touch(root);
+    rhs[root] = 0;
+    open.push(root, calculateKey(root));
+  }
+
+  private void computeShortestPath()
+  {
+    while (!open.isEmpty() && (open.peekPriority() < calculateKey(target) || getRhs(target) != getG(target)))
+    {
+      double oldKey = open.peekPriority();
+      int current = open.pop();
+      expansions++;
+      double newKey = calculateKey(current);
+      if (oldKey < newKey)
+      {
+        open.push(current, newKey);
+      }
+      else if (g[current] > rhs[current])
+      {
+        g[current] = rhs[current];
+        for (int m = graph.getMoves(current); m != 0; m &= m - 1)
+        {
+          updateVertex(graph.getNeighbor(current, TileGraph.nextMove(m)));
+        }
+      }
+      else
+      {
+        g[current] = INFINITY;
+        updateVertex(current);
+        for (int m = graph.getMoves(current); m != 0; m &= m - 1)
+        {
+          updateVertex(graph.getNeighbor(current, TileGraph.nextMove(m)));
+        }
+      }
+    }
+  }
+
+  private void updateVertex(int id)
+  {
+    touch(id);
+    if (id != root)
+    {
+      int best = INFINITY;
+      for (int m = graph.getMoves(id); m != 0; m &= m - 1)
+      {
+        int cost = getG(graph.getNeighbor(id, TileGraph.nextMove(m))) + 1;
+        if (cost < best)
+        {
+          best = cost;
+        }
+      }
+      rhs[id] = best;
+    }
+    if (g[id] != rhs[id])
+    {
+      open.push(id, calculateKey(id));
+    }
+    else
+    {
+      open.remove(id);
+    }
+  }
+
+  private double calculateKey(int id)
+  {
+    int min = Math.min(getG(id), getRhs(id));
+    if (min >= INFINITY)
+    {
+      return Double.MAX_VALUE;
+    }
+    return (double) (min + graph.diagonalDistance(target, id) + keyModifier) * keyScale + min;
+  }
+
+  /**
+   * Makes sure the values of a tile are from this generation, setting them
+   * to infinity if they are left over from an older one.
+   */
+  private void touch(int id)
+  {
+    if (stamp[id] != generation)
+    {
+      stamp[id] = generation;
+      g[id] = INFINITY;
+      rhs[id] = INFINITY;
+    }
+  }
+
+  private int getG(int id)
+  {
+    return stamp[id] == generation ? g[id] : INFINITY;
+  }
+
+  private int getRhs(int id)
+  {
+    return stamp[id] == generation ? rhs[id] : INFINITY;
+  }
+}
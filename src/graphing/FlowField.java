@@ -0,0 +1,129 @@
+package graphing;
+
+import java.util.Arrays;
+
+/**
+ * A map of the whole board that is rooted at the player. For every tile that
+ * can reach the player it stores how far away the player is and which tile to
+ * step to next to get closer. It is rebuilt only when the player moves onto a
+ * different tile, and after that every zombie can look up its distance and
+ * heading without doing a search of its own, so the cost of pathfinding no
+ * longer depends on how many zombies are chasing the player.
+ *
+ * Every move on the TileGraph costs 1, so the map is built with a breadth
+ * first search out from the player. The moves on the graph are the same in
+ * both directions, so following the search backwards gives the path to the
+ * player.
+ */
+public class FlowField
+{
+  private final TileGraph graph;
+
+  private final int[] distance;
+  private final int[] nextStep;
+  private final int[] queue;
+  private int root = AStarSearch.NO_PATH;
+
+  /**
+   * Creates the flow field for the given graph.
+   *
+   * @param graph The graph of the board the zombies are moving on.
+   */
+  public FlowField(TileGraph graph)
+  {
+    this.graph = graph;
+    int numTiles = graph.size();
+    distance = new int[numTiles];
+    nextStep = new int[numTiles];
+    queue = new int[numTiles];
+    Arrays.fill(distance, AStarSearch.NO_PATH);
+  }
+
+  /**
+   * Rebuilds the field if the player is on a different tile than the last
+   * time it was built.
+   *
+   * @param playerTile The id of the tile the player is on.
+   * @return True if the field was rebuilt. False if it was already up to date.
+   */
+  public boolean update(int playerTile)
+  {
+    if (playerTile == root)
+    {
+      return false;
+    }
+    root = playerTile;
+    Arrays.fill(distance, AStarSearch.NO_PATH);
+    if (!graph.isWalkable(playerTile))
+    {
+      return true;
+    }
+    int head = 0;
+    int tail = 0;
+    distance[playerTile] = 0;
+    nextStep[playerTile] = AStarSearch.NO_PATH;
+    queue[tail++] = playerTile;
+    while (head < tail)
+    {
+      int current = queue[head++];
+      int moves = graph.getMoves(current);
+      int nextDistance = distance[current] + 1;
+      for (int m = moves; m != 0; m &= m - 1)
+      {
+        int next = graph.getNeighbor(current, TileGraph.nextMove(m));
+        if (distance[next] != AStarSearch.NO_PATH)
+        {
+          continue;
+        }
+        distance[next] = nextDistance;
+        nextStep[next] = current;
+        queue[tail++] = next;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the id of the tile the field is currently built around.
+   *
+   * @return The id of the player's tile, or NO_PATH if the field hasn't been
+   * built yet.
+   */
+  public int getRoot()
+  {
+    return root;
+  }
+
+  /**
+   * Gets the length of the shortest path from a tile to the player. This is
+   * the same value AStarSearch.findPath returns for that tile.
+   *
+   * @param id The id of the tile.
+   * @return The number of tiles on the path, counting both ends, or NO_PATH
+   * if the player can't be reached from the tile.
+   */
+  public int getPathLength(int id)
+  {
+    if (distance[id] == AStarSearch.NO_PATH)
+    {
+      return AStarSearch.NO_PATH;
+    }
+    return distance[id] + 1;
+  }
+
+  /**
+   * Gets the tile to move to from the given tile to get closer to the player.
+   *
+   * @param id The id of the tile.
+   * @return The id of the next tile, or NO_PATH if the tile is the player's
+   * tile or can't reach the player.
+   */
+  public int getNextStep(int id)
+  {
+    if (distance[id] == AStarSearch.NO_PATH)
+    {
+      return AStarSearch.NO_PATH;
+    }
+    return nextStep[id];
+  }
+}
@@ -29,6 +29,20 @@ public class Heading
     deltaZ=(int) (tile2.zPos-tile1.zPos);
     direction=getDirection(deltaX,deltaZ);
   }
+  /**
+   * Constructor for heading class where the difference in
+   * position between 2 tiles is already known.
+   * @param deltaX
+   *        The difference in x position between the 2 tiles.
+   * @param deltaZ
+   *        The difference in z position between the 2 tiles.
+   */
+  public Heading(int deltaX,int deltaZ)
+  {
+    this.deltaX=deltaX;
+    this.deltaZ=deltaZ;
+    direction=getDirection(deltaX,deltaZ);
+  }
   /**
    * Can return 1 of 8 possible new headings for the zombie
    * to travel in.
@@ -0,0 +1,460 @@
+package graphing;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import levels.ProceduralMap;
+import levels.Tile;
+
+/**
+ * A hierarchical (HPA*) search that plans from room to room first, and only
+ * looks at single tiles inside the room the search starts in and the room
+ * the goal is in.
+ *
+ * The board is split up into the rooms and hallways that ProceduralMap built
+ * it from (Tile.room). Any tile that isn't part of a room, like the border or
+ * a board that was loaded from a file, is put in a square block of
+ * BLOCK_SIZE tiles instead. A tile that has a move into a different room is
+ * an entrance, which on the generated maps are the doors. When the search is
+ * created, the distance between every pair of entrances of the same room is
+ * worked out once, and that gives a small graph of doors that is searched
+ * with A* instead of the whole board.
+ *
+ * Because paths between two doors have to stay inside the room, the paths
+ * this finds can be a little longer than the shortest path, but they are
+ * always paths the zombie can walk.
+ */
+public class HierarchicalSearch
+{
+  // The size of the blocks used for tiles that aren't part of a room.
+  private static final int BLOCK_SIZE = 10;
+
+  private final TileGraph graph;
+
+  // The room each tile is in.
+  private final int[] roomOf;
+
+  // The entrances, and the first entrance of each room in entranceTile.
+  private final int[] entranceTile;
+  private final int[] roomEntranceStart;
+
+  // The edges between entrances. The edges of entrance e are
+  // edgeTarget[edgeStart[e]] to edgeTarget[edgeStart[e + 1] - 1].
+  private final int[] edgeStart;
+  private final int[] edgeTarget;
+  private final int[] edgeCost;
+
+  // State for the search over the entrances. The start and the goal of a
+  // search are added as two extra nodes after the entrances.
+  private final int startNode;
+  private final int goalNode;
+  private final int[] costSoFar;
+  private final int[] cameFrom;
+  private final int[] nodeStamp;
+  private final TileHeap open;
+
+  // Breadth first searches inside the start room and the goal room.
+  private final int[] startDistance;
+  private final int[] startCameFrom;
+  private final int[] startStamp;
+  private final int[] goalDistance;
+  private final int[] goalStamp;
+  private final int[] queue;
+  private int generation = 0;
+
+  // The tiles the last path goes through, from the goal back to the start.
+  private final int[] waypointPrevious;
+  private final int[] waypointStamp;
+
+  private int start = TileGraph.NO_TILE;
+  private int goal = TileGraph.NO_TILE;
+  private int firstStep = TileGraph.NO_TILE;
+
+  /**
+   * Creates the search for the given graph. This splits the board into rooms
+   * and finds the distances between the doors of each room, so it should
+   * only be done once for each board.
+   *
+   * @param graph     The graph of the board the zombies are moving on.
+   * @param gameBoard The board the graph was built from.
+   */
+  public HierarchicalSearch(TileGraph graph, Tile[][] gameBoard)
+  {
+    this.graph = graph;
+    int numTiles = graph.size();
+    roomOf = new int[numTiles];
+    int numRooms = findRooms(gameBoard);
+
+    startDistance = new int[numTiles];
+    startCameFrom = new int[numTiles];
+    startStamp = new int[numTiles];
+    goalDistance = new int[numTiles];
+    goalStamp = new int[numTiles];
+    queue = new int[numTiles];
+    waypointPrevious = new int[numTiles];
+    waypointStamp = new int[numTiles];
+
+    // Find the entrances of each room.
+    int[] entranceCount = new int[numRooms + 1];
+    for (int id = 0; id < numTiles; id++)
+    {
+      if (isEntrance(id))
+      {
+        entranceCount[roomOf[id] + 1]++;
+      }
+    }
+    roomEntranceStart = new int[numRooms + 1];
+    for (int room = 0; room < numRooms; room++)
+    {
+      roomEntranceStart[room + 1] = roomEntranceStart[room] + entranceCount[room + 1];
+    }
+    int numEntrances = roomEntranceStart[numRooms];
+    entranceTile = new int[numEntrances];
+    int[] entranceOf = new int[numTiles];
+    Arrays.fill(entranceOf, TileGraph.NO_TILE);
+    int[] nextSlot = Arrays.copyOf(roomEntranceStart, numRooms);
+    for (int id = 0; id < numTiles; id++)
+    {
+      if (isEntrance(id))
+      {
+        int entrance = nextSlot[roomOf[id]]++;
+        entranceTile[entrance] = id;
+        entranceOf[id] = entrance;
+      }
+    }
+
+    // Every entrance has an edge to each entrance in the next room it can
+    // move to, and to every entrance of its own room it can reach.
+    int[][] targets = new int[numEntrances][];
+    int[][] costs = new int[numEntrances][];
+    int numEdges = 0;
+    for (int entrance = 0; entrance < numEntrances; entrance++)
+    {
+      int id = entranceTile[entrance];
+      int room = roomOf[id];
+      nextGeneration();
+      searchRoom(id, startDistance, startCameFrom, startStamp);
+      int roomStart = roomEntranceStart[room];
+      int roomEnd = roomEntranceStart[room + 1];
+      int[] entranceTargets = new int[(roomEnd - roomStart) + 8];
+      int[] entranceCosts = new int[entranceTargets.length];
+      int count = 0;
+      for (int other = roomStart; other < roomEnd; other++)
+      {
+        int otherTile = entranceTile[other];
+        if (other != entrance && startStamp[otherTile] == generation)
+        {
+          entranceTargets[count] = other;
+          entranceCosts[count] = startDistance[otherTile];
+          count++;
+        }
+      }
+      for (int m = graph.getMoves(id); m != 0; m &= m - 1)
+      {
+        int next = graph.getNeighbor(id, TileGraph.nextMove(m));
+        if (roomOf[next] != room)
+        {
+          entranceTargets[count] = entranceOf[next];
+          entranceCosts[count] = 1;
+          count++;
+        }
+      }
+      targets[entrance] = Arrays.copyOf(entranceTargets, count);
+      costs[entrance] = Arrays.copyOf(entranceCosts, count);
+      numEdges += count;
+    }
+    edgeStart = new int[numEntrances + 1];
+    edgeTarget = new int[numEdges];
+    edgeCost = new int[numEdges];
+    for (int entrance = 0; entrance < numEntrances; entrance++)
+    {
+      int first = edgeStart[entrance];
+      System.arraycopy(targets[entrance], 0, edgeTarget, first, targets[entrance].length);
+      System.arraycopy(costs[entrance], 0, edgeCost, first, costs[entrance].length);
+      edgeStart[entrance + 1] = first + targets[entrance].length;
+    }
+
+    startNode = numEntrances;
+    goalNode = numEntrances + 1;
+    costSoFar = new int[numEntrances + 2];
+    cameFrom = new int[numEntrances + 2];
+    nodeStamp = new int[numEntrances + 2];
+    open = new TileHeap(numEntrances + 2);
+  }
+
+  /**
+   * Gives every tile the number of the room it is in.
+   *
+   * @return The number of rooms.
+   */
+  private int findRooms(Tile[][] gameBoard)
+  {
+    IdentityHashMap<ProceduralMap.Rectangle, Integer> rooms = new IdentityHashMap<>();
+    int blockCols = (graph.getWidth() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    int blockRows = (graph.getHeight() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    int[] blocks = new int[blockRows * blockCols];
+    Arrays.fill(blocks, TileGraph.NO_TILE);
+    int numRooms = 0;
+    for (int row = 0; row < graph.getHeight(); row++)
+    {
+      for (int col = 0; col < graph.getWidth(); col++)
+      {
+        ProceduralMap.Rectangle rectangle = gameBoard[row][col].room;
+        Integer room;
+        if (rectangle != null)
+        {
+          room = rooms.get(rectangle);
+          if (room == null)
+          {
+            room = numRooms++;
+            rooms.put(rectangle, room);
+          }
+        }
+        else
+        {
+          int block = (row / BLOCK_SIZE) * blockCols + col / BLOCK_SIZE;
+          if (blocks[block] == TileGraph.NO_TILE)
+          {
+            blocks[block] = numRooms++;
+          }
+          room = blocks[block];
+        }
+        roomOf[graph.getId(row, col)] = room;
+      }
+    }
+    return numRooms;
+  }
+
+  private boolean isEntrance(int id)
+  {
+    for (int m = graph.getMoves(id); m != 0; m &= m - 1)
+    {
+      if (roomOf[graph.getNeighbor(id, TileGraph.nextMove(m))] != roomOf[id])
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Breadth first search from a tile that doesn't leave the room the tile is
+   * in. Every tile it reaches is stamped with the current generation. The
+   * parents are only kept if parent isn't null.
+   */
+  private void searchRoom(int from, int[] distance, int[] parent, int[] stamp)
+  {
+    int room = roomOf[from];
+    int head = 0;
+    int tail = 0;
+    stamp[from] = generation;
+    distance[from] = 0;
+    if (parent != null)
+    {
+      parent[from] = TileGraph.NO_TILE;
+    }
+    queue[tail++] = from;
+    while (head < tail)
+    {
+      int current = queue[head++];
+      for (int m = graph.getMoves(current); m != 0; m &= m - 1)
+      {
+        int next = graph.getNeighbor(current, TileGraph.nextMove(m));
+        if (roomOf[next] != room || stamp[next] == generation)
+        {
+          continue;
+        }
+        stamp[next] = generation;
+        distance[next] = distance[current] + 1;
+        if (parent != null)
+        {
+          parent[next] = current;
+        }
+        queue[tail++] = next;
+      }
+    }
+  }
+
+  /**
+   * Finds a path between two tiles.
+   *
+   * @param from The id of the tile the search starts on.
+   * @param to   The id of the tile the search is trying to reach.
+   * @return The number of tiles on the path, counting both the start and the
+   * goal, or NO_PATH if the goal can't be reached.
+   */
+  public int findPath(int from, int to)
+  {
+    nextGeneration();
+    start = from;
+    goal = to;
+    firstStep = TileGraph.NO_TILE;
+    open.clear();
+    if (!graph.isWalkable(from) || !graph.isWalkable(to))
+    {
+      return AStarSearch.NO_PATH;
+    }
+    searchRoom(from, startDistance, startCameFrom, startStamp);
+    searchRoom(to, goalDistance, null, goalStamp);
+
+    visitNode(startNode, 0, TileGraph.NO_TILE);
+    open.push(startNode, graph.diagonalDistance(from, to));
+    while (!open.isEmpty())
+    {
+      int current = open.pop();
+      if (current == goalNode)
+      {
+        tracePath();
+        return costSoFar[goalNode] + 1;
+      }
+      if (current == startNode)
+      {
+        int room = roomOf[from];
+        for (int entrance = roomEntranceStart[room]; entrance < roomEntranceStart[room + 1]; entrance++)
+        {
+          int id = entranceTile[entrance];
+          if (startStamp[id] == generation)
+          {
+            relax(current, entrance, startDistance[id]);
+          }
+        }
+        if (startStamp[to] == generation)
+        {
+          relax(current, goalNode, startDistance[to]);
+        }
+        continue;
+      }
+      for (int edge = edgeStart[current]; edge < edgeStart[current + 1]; edge++)
+      {
+        relax(current, edgeTarget[edge], edgeCost[edge]);
+      }
+      int id = entranceTile[current];
+      if (goalStamp[id] == generation)
+      {
+        relax(current, goalNode, goalDistance[id]);
+      }
+    }
+    return AStarSearch.NO_PATH;
+  }
+
+  /**
+   * Gets the tile right after the start tile on the last path that was
+   * found. This is the tile the zombie should head towards.
+   *
+   * @return The id of the second tile on the path, or NO_PATH if the last
+   * search didn't find a path or the start was already the goal.
+   */
+  public int getFirstStep()
+  {
+    return firstStep;
+  }
+
+  /**
+   * Gets the door or tile that comes before the given one on the last path
+   * that was found. Only the start, the goal, the doors the path goes
+   * through and the first step are kept, so following this from the goal
+   * gives the outline of the path rather than every tile on it.
+   *
+   * @param id The id of a tile on the outline of the last path.
+   * @return The id of the previous tile on the outline, or NO_PATH for the
+   * start tile or a tile that isn't on the outline.
+   */
+  public int getCameFrom(int id)
+  {
+    if (waypointStamp[id] != generation)
+    {
+      return AStarSearch.NO_PATH;
+    }
+    return waypointPrevious[id];
+  }
+
+  private void relax(int current, int next, int cost)
+  {
+    int newCost = costSoFar[current] + cost;
+    int nextTile = next == goalNode ? goal : entranceTile[next];
+    if (nodeStamp[next] != generation)
+    {
+      visitNode(next, newCost, current);
+      open.push(next, newCost + graph.diagonalDistance(nextTile, goal));
+    }
+    else if (open.contains(next) && newCost < costSoFar[next])
+    {
+      costSoFar[next] = newCost;
+      cameFrom[next] = current;
+      open.push(next, newCost + graph.diagonalDistance(nextTile, goal));
+    }
+  }
+
+  /**
+   * Records the doors on the path that was just found, and refines the first
+   * part of it inside the start room to get the first step.
+   */
+  private void tracePath()
+  {
+    int node = goalNode;
+    int previousTile = goal;
+    int firstTile = goal;
+    waypointStamp[goal] = generation;
+    while (node != startNode)
+    {
+      int parent = cameFrom[node];
+      int parentTile = parent == startNode ? start : entranceTile[parent];
+      if (parentTile != previousTile)
+      {
+        waypointStamp[previousTile] = generation;
+        waypointPrevious[previousTile] = parentTile;
+        if (parentTile != start)
+        {
+          firstTile = parentTile;
+        }
+      }
+      if (parentTile == start)
+      {
+        break;
+      }
+      previousTile = parentTile;
+      node = parent;
+    }
+    waypointStamp[start] = generation;
+    waypointPrevious[start] = TileGraph.NO_TILE;
+    if (firstTile == start)
+    {
+      return;
+    }
+    if (roomOf[firstTile] != roomOf[start] || startStamp[firstTile] != generation)
+    {
+      // The path leaves the room straight away through a door.
+      firstStep = firstTile;
+      return;
+    }
+    int step = firstTile;
+    while (startCameFrom[step] != start)
+    {
+      step = startCameFrom[step];
+    }
+    firstStep = step;
+  }
+
+  private void nextGeneration()
+  {
+    generation++;
+    if (generation == Integer.MAX_VALUE)
+    {
+      Arrays.fill(startStamp, 0);
+      Arrays.fill(goalStamp, 0);
+      Arrays.fill(waypointStamp, 0);
+      if (nodeStamp != null)
+      {
+        Arrays.fill(nodeStamp, 0);
+      }
+      generation = 1;
+    }
+  }
+
+  private void visitNode(int node, int cost, int from)
+  {
+    nodeStamp[node] = generation;
+    costSoFar[node] = cost;
+    cameFrom[node] = from;
+  }
+}
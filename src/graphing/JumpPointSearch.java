@@ -0,0 +1,337 @@
+package graphing;
+
+import java.util.Arrays;
+
+/**
+ * Jump Point Search over the tiles of a TileGraph. Every walkable tile costs
+ * the same to move onto, so most of the paths on the board are just different
+ * orderings of the same moves. Instead of putting every tile it looks at on
+ * the open list like A* does, this search keeps moving in a straight line or
+ * a diagonal until it reaches a tile where the best path could turn (a jump
+ * point), and only those tiles are put on the open list. This saves the most
+ * in the long straight hallways made by ProceduralMap.
+ *
+ * This version follows the same rule as the rest of the graph: a diagonal
+ * move is only allowed if both of the tiles beside it are open, so a path
+ * never cuts the corner of a wall. The rules for which directions to keep
+ * going in are the ones for that kind of grid from the PathFinding.js
+ * library, https://github.com/qiao/PathFinding.js.
+ *
+ * Like AStarSearch, all of the state is kept in arrays that are reused for
+ * every search, so a search doesn't allocate any memory.
+ */
+public class JumpPointSearch
+{
+  private final TileGraph graph;
+
+  private final int[] costSoFar;
+  private final int[] cameFrom;
+  private final int[] generationStamp;
+  private final TileHeap open;
+  private int generation = 0;
+
+  // The tile before each tile on the last path that was found, filled in
+  // between the jump points once the goal is reached.
+  private final int[] pathPrevious;
+  private final int[] pathStamp;
+
+  private int start = TileGraph.NO_TILE;
+  private int goal = TileGraph.NO_TILE;
+  private int goalRow;
+  private int goalCol;
+  private int firstStep = TileGraph.NO_TILE;
+
+  /**
+   * Creates the search for the given graph.
+   *
+   * @param graph The graph of the board the zombies are moving on.
+   */
+  public JumpPointSearch(TileGraph graph)
+  {
+    this.graph = graph;
+    int numTiles = graph.size();
+    costSoFar = new int[numTiles];
+    cameFrom = new int[numTiles];
+    generationStamp = new int[numTiles];
+    open = new TileHeap(numTiles);
+    pathPrevious = new int[numTiles];
+    pathStamp = new int[numTiles];
+  }
+
+  /**
+   * Finds the shortest path between two tiles.
+   *
+   * @param from The id of the tile the search starts on.
+   * @param to   The id of the tile the search is trying to reach.
+   * @return The number of tiles on the path, counting both the start and the
+   * goal, or NO_PATH if the goal can't be reached. This is the same value
+   * AStarSearch.findPath returns.
+   */
+  public int findPath(int from, int to)
+  {
+    nextGeneration();
+    start = from;
+    goal = to;
+    goalRow = graph.getRow(to);
+    goalCol = graph.getCol(to);
+    firstStep = TileGraph.NO_TILE;
+    open.clear();
+
+    if (!graph.isWalkable(from) || !graph.isWalkable(to))
+    {
+      return AStarSearch.NO_PATH;
+    }
+    visit(from, 0, TileGraph.NO_TILE);
+    open.push(from, graph.diagonalDistance(from, to));
+
+    while (!open.isEmpty())
+    {
+      int current = open.pop();
+      if (current == to)
+      {
+        tracePath();
+        return costSoFar[to] + 1;
+      }
+      int row = graph.getRow(current);
+      int col = graph.getCol(current);
+      int parent = cameFrom[current];
+      if (parent == TileGraph.NO_TILE)
+      {
+        for (int m = graph.getMoves(current); m != 0; m &= m - 1)
+        {
+          int move = TileGraph.nextMove(m);
+          checkJump(current, row, col, TileGraph.DELTA_ROW[move], TileGraph.DELTA_COL[move]);
+        }
+        continue;
+      }
+      int deltaRow = Integer.signum(row - graph.getRow(parent));
+      int deltaCol = Integer.signum(col - graph.getCol(parent));
+      if (deltaRow != 0 && deltaCol != 0)
+      {
+        boolean rowOpen = graph.isWalkable(row + deltaRow, col);
+        boolean colOpen = graph.isWalkable(row, col + deltaCol);
+        if (rowOpen)
+        {
+          checkJump(current, row, col, deltaRow, 0);
+        }
+        if (colOpen)
+        {
+          checkJump(current, row, col, 0, deltaCol);
+        }
+        if (rowOpen && colOpen)
+        {
+          checkJump(current, row, col, deltaRow, deltaCol);
+        }
+      }
+      else if (deltaCol != 0)
+      {
+        boolean nextOpen = graph.isWalkable(row, col + deltaCol);
+        boolean belowOpen = graph.isWalkable(row + 1, col);
+        boolean aboveOpen = graph.isWalkable(row - 1, col);
+        if (nextOpen)
+        {
+          checkJump(current, row, col, 0, deltaCol);
+          if (belowOpen)
+          {
+            checkJump(current, row, col, 1, deltaCol);
+          }
+          if (aboveOpen)
+          {
+            checkJump(current, row, col, -1, deltaCol);
+          }
+        }
+        if (belowOpen)
+        {
+          checkJump(current, row, col, 1, 0);
+        }
+        if (aboveOpen)
+        {
+          checkJump(current, row, col, -1, 0);
+        }
+      }
+      else
+      {
+        boolean nextOpen = graph.isWalkable(row + deltaRow, col);
+        boolean rightOpen = graph.isWalkable(row, col + 1);
+        boolean leftOpen = graph.isWalkable(row, col - 1);
+        if (nextOpen)
+        {
+          checkJump(current, row, col, deltaRow, 0);
+          if (rightOpen)
+          {
+            checkJump(current, row, col, deltaRow, 1);
+          }
+          if (leftOpen)
+          {
+            checkJump(current, row, col, deltaRow, -1);
+          }
+        }
+        if (rightOpen)
+        {
+          checkJump(current, row, col, 0, 1);
+        }
+        if (leftOpen)
+        {
+          checkJump(current, row, col, 0, -1);
+        }
+      }
+    }
+    return AStarSearch.NO_PATH;
+  }
+
+  /**
+   * Gets the tile right after the start tile on the last path that was
+   * found. This is the tile the zombie should head towards.
+   *
+   * @return The id of the second tile on the path, or NO_PATH if the last
+   * search didn't find a path or the start was already the goal.
+   */
+  public int getFirstStep()
+  {
+    return firstStep;
+  }
+
+  /**
+   * Gets the tile that comes before the given tile on the last path that was
+   * found. Following this from the goal leads back to the start.
+   *
+   * @param id The id of a tile on the last path.
+   * @return The id of the previous tile, or NO_PATH for the start tile or a
+   * tile that isn't on the path.
+   */
+  public int getCameFrom(int id)
+  {
+    if (pathStamp[id] != generation)
+    {
+      return AStarSearch.NO_PATH;
+    }
+    return pathPrevious[id];
+  }
+
+  /**
+   * Jumps from a tile in one direction, and if a jump point is found, adds it
+   * to the open list the same way A* adds a neighbor.
+   */
+  private void checkJump(int current, int row, int col, int deltaRow, int deltaCol)
+  {
+    int jumpPoint = jump(row + deltaRow, col + deltaCol, deltaRow, deltaCol);
+    if (jumpPoint == TileGraph.NO_TILE)
+    {
+      return;
+    }
+    int newCost = costSoFar[current] + graph.diagonalDistance(current, jumpPoint);
+    if (generationStamp[jumpPoint] != generation)
+    {
+      visit(jumpPoint, newCost, current);
+      open.push(jumpPoint, newCost + graph.diagonalDistance(jumpPoint, goal));
+    }
+    else if (open.contains(jumpPoint) && newCost < costSoFar[jumpPoint])
+    {
+      costSoFar[jumpPoint] = newCost;
+      cameFrom[jumpPoint] = current;
+      open.push(jumpPoint, newCost + graph.diagonalDistance(jumpPoint, goal));
+    }
+  }
+
+  /**
+   * Keeps moving in one direction, starting on the given tile, until it
+   * reaches the goal, a tile where the path might have to turn, or a wall.
+   *
+   * @return The id of the jump point, or NO_TILE if there isn't one in this
+   * direction.
+   */
+  private int jump(int row, int col, int deltaRow, int deltaCol)
+  {
+    while (true)
+    {
+      if (!graph.isWalkable(row, col))
+      {
+        return TileGraph.NO_TILE;
+      }
+      if (row == goalRow && col == goalCol)
+      {
+        return goal;
+      }
+      if (deltaRow != 0 && deltaCol != 0)
+      {
+        // Moving diagonally, this is a jump point if one of the straight
+        // jumps from it finds something.
+        if (jump(row, col + deltaCol, 0, deltaCol) != TileGraph.NO_TILE || jump(row + deltaRow, col, deltaRow, 0) != TileGraph.NO_TILE)
+        {
+          return graph.getId(row, col);
+        }
+      }
+      else if (deltaCol != 0)
+      {
+        // A wall behind one of the sides ends here, so the path could turn
+        // around it.
+        if ((graph.isWalkable(row - 1, col) && !graph.isWalkable(row - 1, col - deltaCol)) || (graph.isWalkable(row + 1, col) && !graph.isWalkable(row + 1, col - deltaCol)))
+        {
+          return graph.getId(row, col);
+        }
+      }
+      else
+      {
+        if ((graph.isWalkable(row, col - 1) && !graph.isWalkable(row - deltaRow, col - 1)) || (graph.isWalkable(row, col + 1) && !graph.isWalkable(row - deltaRow, col + 1)))
+        {
+          return graph.getId(row, col);
+        }
+      }
+      // Both tiles beside the next move have to be open so the corner
+      // of a wall isn't cut.
+      if (!graph.isWalkable(row + deltaRow, col) || !graph.isWalkable(row, col + deltaCol))
+      {
+        return TileGraph.NO_TILE;
+      }
+      row += deltaRow;
+      col += deltaCol;
+    }
+  }
+
+  /**
+   * Fills in every tile between the jump points on the path that was just
+   * found, from the goal back to the start, and finds the first step.
+   */
+  private void tracePath()
+  {
+    int tile = goal;
+    while (tile != start)
+    {
+      int jumpFrom = cameFrom[tile];
+      int stepRow = Integer.signum(graph.getRow(jumpFrom) - graph.getRow(tile));
+      int stepCol = Integer.signum(graph.getCol(jumpFrom) - graph.getCol(tile));
+      int step = stepRow * graph.getWidth() + stepCol;
+      while (tile != jumpFrom)
+      {
+        int previous = tile + step;
+        pathStamp[tile] = generation;
+        pathPrevious[tile] = previous;
+        if (previous == start)
+        {
+          firstStep = tile;
+        }
+        tile = previous;
+      }
+    }
+    pathStamp[start] = generation;
+    pathPrevious[start] = TileGraph.NO_TILE;
+  }
+
+  private void nextGeneration()
+  {
+    generation++;
+    if (generation == Integer.MAX_VALUE)
+    {
+      Arrays.fill(generationStamp, 0);
+      Arrays.fill(pathStamp, 0);
+      generation = 1;
+    }
+  }
+
+  private void visit(int id, int cost, int from)
+  {
+    generationStamp[id] = generation;
+    costSoFar[id] = cost;
+    cameFrom[id] = from;
+  }
+}
@@ -0,0 +1,183 @@
+package graphing;
+
+import levels.Tile;
+
+/**
+ * A better guess of how far apart two tiles are than the diagonal distance,
+ * for A* to use on boards with lots of walls between the rooms. A few tiles
+ * are picked as landmarks when the level is made, and the distance from each
+ * landmark to every tile is worked out once. Going around a landmark can't be
+ * shorter than the shortest path, so for any landmark L the path from a to b
+ * is at least |dist(L, b) - dist(L, a)| long. The largest of these, or the
+ * diagonal distance if that is larger, is never more than the real distance,
+ * so A* still finds the shortest path but expands fewer tiles getting there.
+ *
+ * The landmarks are the exit and the walkable tiles closest to the corners of
+ * the board, since landmarks work best when they are out at the edges, behind
+ * the tiles being searched. The distances are kept in short tables to keep
+ * them small. This is the ALT heuristic from Goldberg and Harrelson,
+ * "Computing the Shortest Path: A* Search Meets Graph Theory", SODA 2005.
+ *
+ * Once made, the tables are only read, so they can be shared by every search
+ * on the board, including ones on other threads.
+ */
+public class Landmarks
+{
+  // Stored for a tile the landmark can't reach, or is too far away to fit.
+  private static final short UNKNOWN = -1;
+
+  private final TileGraph graph;
+  private final int[] landmarks;
+  private final short[][] distance;
+
+  /**
+   * Picks the landmarks for a board and works out the distances from them.
+   *
+   * @param graph     The graph of the finished board.
+   * @param gameBoard The board the graph was built from.
+   */
+  public Landmarks(TileGraph graph, Tile[][] gameBoard)
+  {
+    this.graph = graph;
+    int[] picked = new int[5];
+    int numPicked = 0;
+    int exit = findExit(gameBoard);
+    if (exit != TileGraph.NO_TILE)
+    {
+      picked[numPicked++] = exit;
+    }
+    int lastRow = graph.getHeight() - 1;
+    int lastCol = graph.getWidth() - 1;
+    int[][] corners = {{0, 0}, {0, lastCol}, {lastRow, 0}, {lastRow, lastCol}};
+    for (int[] corner : corners)
+    {
+      int tile = closestWalkableTile(corner[0], corner[1]);
+      if (tile != TileGraph.NO_TILE && !contains(picked, numPicked, tile))
+      {
+        picked[numPicked++] = tile;
+      }
+    }
+
+    landmarks = new int[numPicked];
+    distance = new short[numPicked][];
+    WavefrontSearch wavefront = new WavefrontSearch(graph);
+    for (int i = 0; i < numPicked; i++)
+    {
+      landmarks[i] = picked[i];
+      distance[i] = new short[graph.size()];
+      wavefront.fill(picked[i]);
+      for (int id = 0; id < graph.size(); id++)
+      {
+        int tileDistance = wavefront.getDistance(id);
+        distance[i][id] = tileDistance < 0 || tileDistance >= Short.MAX_VALUE ? UNKNOWN : (short) tileDistance;
+      }
+    }
+  }
+
+  /**
+   * @return The graph the distances were worked out on.
+   */
+  public TileGraph getGraph()
+  {
+    return graph;
+  }
+
+  /**
+   * @return The number of landmarks on the board.
+   */
+  public int size()
+  {
+    return landmarks.length;
+  }
+
+  /**
+   * Gets the distances from every landmark to a goal tile. A search looks
+   * these up once and passes them to estimate for every tile it looks at.
+   *
+   * @param goal         The id of the goal tile.
+   * @param goalDistance Filled in with the distance from each landmark to the
+   *                     goal. It has to hold at least size() values.
+   */
+  public void getGoalDistances(int goal, int[] goalDistance)
+  {
+    for (int i = 0; i < landmarks.length; i++)
+    {
+      goalDistance[i] = distance[i][goal];
+    }
+  }
+
+  /**
+   * Guesses the number of moves between a tile and the goal. This is never
+   * more than the real number of moves.
+   *
+   * @param id           The id of the tile.
+   * @param goal         The id of the goal tile.
+   * @param goalDistance The distances from getGoalDistances for the goal.
+   * @return The guess, which is at least the diagonal distance.
+   */
+  public int estimate(int id, int goal, int[] goalDistance)
+  {
+    int best = graph.diagonalDistance(id, goal);
+    for (int i = 0; i < landmarks.length; i++)
+    {
+      int tileDistance = distance[i][id];
+      if (tileDistance == UNKNOWN || goalDistance[i] == UNKNOWN)
+      {
+        continue;
+      }
+      int bound = Math.abs(goalDistance[i] - tileDistance);
+      if (bound > best)
+      {
+        best = bound;
+      }
+    }
+    return best;
+  }
+
+  private int findExit(Tile[][] gameBoard)
+  {
+    for (int row = 0; row < graph.getHeight(); row++)
+    {
+      for (int col = 0; col < graph.getWidth(); col++)
+      {
+        if (gameBoard[row][col].type == Tile.TileType.exit && graph.isWalkable(row, col))
+        {
+          return graph.getId(row, col);
+        }
+      }
+    }
+    return TileGraph.NO_TILE;
+  }
+
+  /**
+   * Finds the walkable tile that is the fewest diagonal moves from a corner,
+   * ignoring tiles that can't be moved off of.
+   */
+  private int closestWalkableTile(int row, int col)
+  {
+    int corner = graph.getId(row, col);
+    int best = TileGraph.NO_TILE;
+    int bestDistance = Integer.MAX_VALUE;
+    for (int id = 0; id < graph.size(); id++)
+    {
+      if (graph.getMoves(id) != 0 && graph.diagonalDistance(corner, id) < bestDistance)
+      {
+        best = id;
+        bestDistance = graph.diagonalDistance(corner, id);
+      }
+    }
+    return best;
+  }
+
+  private static boolean contains(int[] tiles, int count, int tile)
+  {
+    for (int i = 0; i < count; i++)
+    {
+      if (tiles[i] == tile)
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+}
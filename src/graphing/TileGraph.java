@@ -1,46 +1,243 @@
 package graphing;
 
-
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
-
 import levels.Tile;
+
 /**
- * 
  * @author Jeffrey McCall
- * This class constructs the graph used for pathfinding which is represented by a
- * HashMap called tileGraph. 
+ * This class is the graph used for pathfinding. Every tile on the board is a
+ * node, identified by the id row * width + col (row being the first index of
+ * the Tile[][] board). Instead of a node object with a list of neighbors, each
+ * tile has a single byte where bit i is set if the zombie is allowed to make
+ * move i from that tile. The moves that would cut diagonally past the corner
+ * of a wall are left out when the graph is built, so a search never has to
+ * look at the walls around a tile. The graph never changes once it is built,
+ * so it can be read from anywhere without locking.
  */
 public class TileGraph
 {
-  public static Map<Tile,GraphNode> tileGraph = Collections.synchronizedMap(new HashMap<>());
-  
+  // Used for a tile id that isn't on the board, or a path that doesn't exist.
+  public static final int NO_TILE = -1;
+
+  // Offsets to the 8 neighbors of a tile. The first 4 are orthogonal moves,
+  // the last 4 are diagonal moves.
+  static final int[] DELTA_ROW = {1, -1, 0, 0, 1, 1, -1, -1};
+  static final int[] DELTA_COL = {0, 0, 1, -1, 1, -1, 1, -1};
+
+  private final int width;
+  private final int height;
+  private final boolean[] walkable;
+  private final byte[] moves;
+  // How far apart the ids of a tile and its neighbor are for each move.
+  private final int[] neighborOffset = new int[8];
+
+  /**
+   * Builds the graph for the given board. This has to be done after the board
+   * is finished, once all of the walls have been placed. The corner flags on
+   * the tiles (wallNE, wallNW, wallSE and wallSW) are set here as well.
+   *
+   * @param gameBoard The finished game board.
+   */
+  public TileGraph(Tile[][] gameBoard)
+  {
+    height = gameBoard.length;
+    width = gameBoard[0].length;
+    walkable = new boolean[width * height];
+    moves = new byte[width * height];
+    for (int i = 0; i < 8; i++)
+    {
+      neighborOffset[i] = DELTA_ROW[i] * width + DELTA_COL[i];
+    }
+    for (int row = 0; row < height; row++)
+    {
+      for (int col = 0; col < width; col++)
+      {
+        walkable[row * width + col] = !gameBoard[row][col].isWall;
+      }
+    }
+    for (int row = 0; row < height; row++)
+    {
+      for (int col = 0; col < width; col++)
+      {
+        if (walkable[row * width + col])
+        {
+          moves[row * width + col] = findMoves(row, col);
+          checkCorners(gameBoard[row][col], row, col);
+        }
+      }
+    }
+  }
+
+  /**
+   * Works out which of the 8 moves can be made from a tile. A move can't go
+   * off the board or into a wall. A diagonal move also isn't allowed if there
+   * is a wall on either side of it, since the zombie would be walking through
+   * the corner of that wall. This was done to stop zombies from getting stuck
+   * on doorways.
+   */
+  private byte findMoves(int row, int col)
+  {
+    int mask = 0;
+    for (int i = 0; i < 8; i++)
+    {
+      int nextRow = row + DELTA_ROW[i];
+      int nextCol = col + DELTA_COL[i];
+      if (!isWalkable(nextRow, nextCol))
+      {
+        continue;
+      }
+      if (i >= 4 && (!isWalkable(row, nextCol) || !isWalkable(nextRow, col)))
+      {
+        continue;
+      }
+      mask |= 1 << i;
+    }
+    return (byte) mask;
+  }
+
+  /**
+   * Marks a tile as a corner tile if it has no walls on its sides but does
+   * have a wall diagonal to it. Zombies that hit a wall on one of these tiles
+   * get centered on it so they don't keep walking into the corner.
+   */
+  private void checkCorners(Tile tile, int row, int col)
+  {
+    if (!isWalkable(row + 1, col) || !isWalkable(row - 1, col) || !isWalkable(row, col + 1) || !isWalkable(row, col - 1))
+    {
+      return;
+    }
+    tile.wallSW = !isWalkable(row + 1, col + 1);
+    tile.wallSE = !isWalkable(row + 1, col - 1);
+    tile.wallNW = !isWalkable(row - 1, col + 1);
+    tile.wallNE = !isWalkable(row - 1, col - 1);
+  }
+
   /**
-   * This class creates the graph by adding all of the nodes to
-   * tileGraph.
-   * @param node
-   *        The GraphNode object to be added to the graph.
+   * @param row The first index of the tile on the board.
+   * @param col The second index of the tile on the board.
+   * @return True if the tile is on the board and isn't a wall.
    */
-  public static void createGraph(GraphNode node)
+  public boolean isWalkable(int row, int col)
   {
-    tileGraph.put(node.nodeTile,node);
+    return row >= 0 && row < height && col >= 0 && col < width && walkable[row * width + col];
   }
+
   /**
-   * Gets the appropriate node based on the tile that
-   * is passed in to the method.
-   * @param tile
-   *        The tile object being passed in.
-   * @return
-   *        The GraphNode object associated with the given
-   *        tile.
+   * Gets the id of the tile at the given location on the board.
+   *
+   * @param row The first index of the tile on the board.
+   * @param col The second index of the tile on the board.
+   * @return The id of the tile, or NO_TILE if it is off the board.
    */
-  public static GraphNode getNode(Tile tile)
+  public int getId(int row, int col)
   {
-    if(tileGraph.containsKey(tile))
+    if (row < 0 || row >= height || col < 0 || col >= width)
     {
-      return tileGraph.get(tile);
+      return NO_TILE;
     }
-    return null;
+    return row * width + col;
+  }
+
+  public int getRow(int id)
+  {
+    return id / width;
+  }
+
+  public int getCol(int id)
+  {
+    return id % width;
+  }
+
+  public int getWidth()
+  {
+    return width;
+  }
+
+  public int getHeight()
+  {
+    return height;
+  }
+
+  /**
+   * @return The number of tiles in the graph.
+   */
+  public int size()
+  {
+    return walkable.length;
+  }
+
+  /**
+   * @param id The id of a tile.
+   * @return True if the tile isn't a wall.
+   */
+  public boolean isWalkable(int id)
+  {
+    return walkable[id];
+  }
+
+  /**
+   * Gets the moves that can be made from a tile. This is worked out once when
+   * the graph is built, so a search can go through the moves of a tile with
+   * nextMove without ever looking at the walls around it.
+   *
+   * @param id The id of a tile.
+   * @return A mask where bit i is set if move i can be made. Walls have no
+   * moves.
+   */
+  public int getMoves(int id)
+  {
+    return moves[id] & 0xFF;
+  }
+
+  /**
+   * Gets the lowest move left in a move mask. Used with getMoves like this:
+   * for (int m = getMoves(id); m != 0; m &= m - 1), where nextMove(m) is the
+   * move to make on each pass.
+   *
+   * @param moveMask A mask of moves that still have to be looked at.
+   * @return The index of the lowest move in the mask, 0-7.
+   */
+  public static int nextMove(int moveMask)
+  {
+    return Integer.numberOfTrailingZeros(moveMask);
+  }
+
+  /**
+   * Gets the tile that move i leads to. This doesn't check that the move is
+   * allowed, so it should only be used for moves that are in getMoves.
+   *
+   * @param id   The id of the tile the move starts on.
+   * @param move The index of the move, 0-7.
+   * @return The id of the tile the move ends on.
+   */
+  public int getNeighbor(int id, int move)
+  {
+    return id + neighborOffset[move];
+  }
+
+  /**
+   * Diagonal distance between two tiles. This is the fewest number of moves
+   * it could take to get from one to the other.
+   *
+   * @param from The id of the first tile.
+   * @param to   The id of the second tile.
+   * @return The number of moves it would take with no walls in the way.
+   */
+  public int diagonalDistance(int from, int to)
+  {
+    int deltaRow = Math.abs(getRow(from) - getRow(to));
+    int deltaCol = Math.abs(getCol(from) - getCol(to));
+    return Math.max(deltaRow, deltaCol);
+  }
+
+  /**
+   * Manhattan distance between two tiles.
+   *
+   * @param from The id of the first tile.
+   * @param to   The id of the second tile.
+   * @return The distance between the two tiles.
+   */
+  public int manhattanDistance(int from, int to)
+  {
+    return Math.abs(getRow(from) - getRow(to)) + Math.abs(getCol(from) - getCol(to));
   }
 }
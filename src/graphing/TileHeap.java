@@ -0,0 +1,196 @@
+package graphing;
+
+import java.util.Arrays;
+
+/**
+ * The open list used by the searches in this package. It is a binary heap of
+ * tile ids ordered by priority, lowest first. heapIndex keeps track of where
+ * each tile is in the heap so its priority can be changed in place, and is
+ * NO_TILE for a tile that isn't in the heap. All of the arrays are allocated
+ * once for the board, so using the heap doesn't allocate any memory.
+ */
+class TileHeap
+{
+  private final int[] heap;
+  private final int[] heapIndex;
+  private final double[] priority;
+  private int heapSize = 0;
+
+  /**
+   * @param numTiles The number of tiles on the board.
+   */
+  TileHeap(int numTiles)
+  {
+    heap = new int[numTiles];
+    heapIndex = new int[numTiles];
+    priority = new double[numTiles];
+    Arrays.fill(heapIndex, TileGraph.NO_TILE);
+  }
+
+  /**
+   * Takes every tile out of the heap. This only touches the tiles that are
+   * still in it, not the whole board.
+   */
+  void clear()
+  {
+    for (int i = 0; i < heapSize; i++)
+    {
+      heapIndex[heap[i]] = TileGraph.NO_TILE;
+    }
+    heapSize = 0;
+  }
+
+  boolean isEmpty()
+  {
+    return heapSize == 0;
+  }
+
+  int size()
+  {
+    return heapSize;
+  }
+
+  boolean contains(int id)
+  {
+    return heapIndex[id] != TileGraph.NO_TILE;
+  }
+
+  /**
+   * Adds a tile to the heap, or changes its priority if it is already in it.
+   *
+   * @param id          The id of the tile.
+   * @param newPriority The priority of the tile. Lower comes out first.
+   */
+  void push(int id, double newPriority)
+  {
+    if (heapIndex[id] != TileGraph.NO_TILE)
+    {
+      double oldPriority = priority[id];
+      priority[id] = newPriority;
+      if (newPriority < oldPriority)
+      {
+        siftUp(heapIndex[id]);
+      }
+      else
+      {
+        siftDown(heapIndex[id]);
+      }
+      return;
+    }
+    priority[id] = newPriority;
+    heap[heapSize] = id;
+    heapIndex[id] = heapSize;
+    heapSize++;
+    siftUp(heapSize - 1);
+  }
+
+  /**
+   * @return The id of the tile with the lowest priority, without taking it
+   * out of the heap.
+   */
+  int peek()
+  {
+    return heap[0];
+  }
+
+  /**
+   * @return The lowest priority in the heap.
+   */
+  double peekPriority()
+  {
+    return priority[heap[0]];
+  }
+
+  /**
+   * Takes the tile with the lowest priority out of the heap.
+   *
+   * @return The id of the tile.
+   */
+  int pop()
+  {
+    int top = heap[0];
+    removeAt(0);
+    return top;
+  }
+
+  /**
+   * Takes a tile out of the heap if it is in it.
+   *
+   * @param id The id of the tile.
+   */
+  void remove(int id)
+  {
+    if (heapIndex[id] != TileGraph.NO_TILE)
+    {
+      removeAt(heapIndex[id]);
+    }
+  }
+
+  private void removeAt(int index)
+  {
+    int id = heap[index];
+    heapIndex[id] = TileGraph.NO_TILE;
+    heapSize--;
+    if (index == heapSize)
+    {
+      return;
+    }
+    int last = heap[heapSize];
+    heap[index] = last;
+    heapIndex[last] = index;
+    if (priority[last] < priority[id])
+    {
+      siftUp(index);
+    }
+    else
+    {
+      siftDown(index);
+    }
+  }
+
+  private void siftUp(int index)
+  {
+    int id = heap[index];
+    double idPriority = priority[id];
+    while (index > 0)
+    {
+      int parent = (index - 1) >> 1;
+      int parentId = heap[parent];
+      if (priority[parentId] <= idPriority)
+      {
+        break;
+      }
+      heap[index] = parentId;
+      heapIndex[parentId] = index;
+      index = parent;
+    }
+    heap[index] = id;
+    heapIndex[id] = index;
+  }
+
+  private void siftDown(int index)
+  {
+    int id = heap[index];
+    double idPriority = priority[id];
+    int half = heapSize >> 1;
+    while (index < half)
+    {
+      int child = 2 * index + 1;
+      int right = child + 1;
+      if (right < heapSize && priority[heap[right]] < priority[heap[child]])
+      {
+        child = right;
+      }
+      int childId = heap[child];
+      if (idPriority <= priority[childId])
+      {
+        break;
+      }
+      heap[index] = childId;
+      heapIndex[childId] = index;
+      index = child;
+    }
+    heap[index] = id;
+    heapIndex[id] = index;
+  }
+}
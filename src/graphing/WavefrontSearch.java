@@ -0,0 +1,347 @@
+package graphing;
+
+import java.util.Arrays;
+
+/**
+ * A breadth first search that works on 64 tiles at a time. Each row of the
+ * board is kept as a row of longs, one bit per tile, and the search keeps a
+ * bit board of the tiles it has reached and a bit board of the tiles it
+ * reached on the last step (the wavefront). Each step grows the wavefront by
+ * one move in every direction with shifts and ORs, and the tiles that were
+ * already reached are masked out. The number of steps taken when a tile is
+ * first reached is its distance from the start.
+ *
+ * The moves come from the TileGraph, so the same diagonal moves past the
+ * corners of walls are left out and every distance is the same one the other
+ * searches would find. For every move there is a bit board of the tiles that
+ * move can be made from, so one step is just: for each move, take the
+ * wavefront tiles that can make it and shift them over by it.
+ *
+ * This is meant for questions about the whole board, like how far every tile
+ * is from the player, whether the exit can be reached at all, or whether the
+ * player is within some distance of a zombie. It doesn't find paths.
+ */
+public class WavefrontSearch
+{
+  private final TileGraph graph;
+  private final int width;
+  private final int wordsPerRow;
+
+  // The index of each move in TileGraph.DELTA_ROW and DELTA_COL.
+  private static final int MOVE_DOWN = 0;
+  private static final int MOVE_UP = 1;
+  private static final int MOVE_RIGHT = 2;
+  private static final int MOVE_LEFT = 3;
+  private static final int MOVE_DOWN_RIGHT = 4;
+  private static final int MOVE_DOWN_LEFT = 5;
+  private static final int MOVE_UP_RIGHT = 6;
+  private static final int MOVE_UP_LEFT = 7;
+
+  // The tiles each of the 8 moves can be made from. The 8 masks for a word
+  // are next to each other, at word * 8 + move.
+  private final long[] canMove;
+  private final long[] reached;
+  // The wavefront is kept as a list of the words that have tiles in it, so a
+  // step only looks at the part of the board the wavefront is on.
+  private long[] frontier;
+  private long[] nextFrontier;
+  private int[] frontierWords;
+  private int[] nextWords;
+  private int numFrontierWords = 0;
+  private int numNextWords = 0;
+  private final int[] wordStamp;
+  private int stamp = 0;
+  private final int[] distance;
+
+  private int source = TileGraph.NO_TILE;
+  private boolean distancesRecorded = false;
+  private int steps = 0;
+
+  /**
+   * Creates the search for the given graph.
+   *
+   * @param graph The graph of the board the zombies are moving on.
+   */
+  public WavefrontSearch(TileGraph graph)
+  {
+    this.graph = graph;
+    width = graph.getWidth();
+    wordsPerRow = (width + 63) / 64;
+    int numWords = wordsPerRow * graph.getHeight();
+    canMove = new long[numWords * 8];
+    for (int id = 0; id < graph.size(); id++)
+    {
+      int word = wordIndex(graph.getRow(id), graph.getCol(id));
+      long bit = 1L << graph.getCol(id);
+      for (int m = graph.getMoves(id); m != 0; m &= m - 1)
+      {
+        canMove[word * 8 + TileGraph.nextMove(m)] |= bit;
+      }
+    }
+    reached = new long[numWords];
+    frontier = new long[numWords];
+    nextFrontier = new long[numWords];
+    frontierWords = new int[numWords];
+    nextWords = new int[numWords];
+    wordStamp = new int[numWords];
+    distance = new int[graph.size()];
+  }
+
+  /**
+   * Finds how far every tile on the board is from the start. The distances
+   * can then be read with getDistance.
+   *
+   * @param from The id of the tile to measure from.
+   */
+  public void fill(int from)
+  {
+    run(from, TileGraph.NO_TILE, Integer.MAX_VALUE, true);
+  }
+
+  /**
+   * Finds how long the shortest path between two tiles is, if it is no
+   * longer than maxLength. The search stops on the step the goal is reached,
+   * and never takes more steps than the limit.
+   *
+   * @param from      The id of the tile the search starts on.
+   * @param to        The id of the tile the search is trying to reach.
+   * @param maxLength The most tiles the path can have, counting both ends.
+   * @return The number of tiles on the path, counting both ends, NO_PATH if
+   * the goal can't be reached, or OUT_OF_RANGE if it is further away than
+   * maxLength. These are the same values AStarSearch.findPathWithin returns.
+   */
+  public int findPathLength(int from, int to, int maxLength)
+  {
+    if (!graph.isWalkable(to))
+    {
+      return AStarSearch.NO_PATH;
+    }
+    return run(from, to, maxLength - 1, false);
+  }
+
+  /**
+   * Checks if there is any path between two tiles.
+   *
+   * @param from The id of one of the tiles.
+   * @param to   The id of the other tile.
+   * @return True if one can be reached from the other.
+   */
+  public boolean isConnected(int from, int to)
+  {
+    return findPathLength(from, to, Integer.MAX_VALUE) >= 0;
+  }
+
+  /**
+   * @param id The id of a tile.
+   * @return True if the last search reached the tile.
+   */
+  public boolean isReached(int id)
+  {
+    return (reached[wordIndex(graph.getRow(id), graph.getCol(id))] & (1L << graph.getCol(id))) != 0;
+  }
+
+  /**
+   * Gets the number of moves from the start of the last call to fill to a
+   * tile.
+   *
+   * @param id The id of a tile.
+   * @return The number of moves, or NO_PATH if the tile can't be reached.
+   */
+  public int getDistance(int id)
+  {
+    if (!distancesRecorded || !isReached(id))
+    {
+      return AStarSearch.NO_PATH;
+    }
+    return distance[id];
+  }
+
+  /**
+   * @return The tile the last search started on.
+   */
+  public int getSource()
+  {
+    return source;
+  }
+
+  /**
+   * @return The number of steps the wavefront took in the last search.
+   */
+  public int getSteps()
+  {
+    return steps;
+  }
+
+  /**
+   * Grows the wavefront out from the start one step at a time.
+   *
+   * @return The path length to the goal, NO_PATH if the wavefront died out
+   * first, or OUT_OF_RANGE if it ran out of steps first.
+   */
+  private int run(int from, int to, int maxSteps, boolean recordDistances)
+  {
+    source = from;
+    distancesRecorded = recordDistances;
+    steps = 0;
+    Arrays.fill(reached, 0);
+    if (!graph.isWalkable(from))
+    {
+      return AStarSearch.NO_PATH;
+    }
+    int startWord = wordIndex(graph.getRow(from), graph.getCol(from));
+    frontier[startWord] = 1L << graph.getCol(from);
+    reached[startWord] = frontier[startWord];
+    frontierWords[0] = startWord;
+    numFrontierWords = 1;
+    if (recordDistances)
+    {
+      distance[from] = 0;
+    }
+    if (from == to)
+    {
+      return 1;
+    }
+    int goalWord = to == TileGraph.NO_TILE ? 0 : wordIndex(graph.getRow(to), graph.getCol(to));
+    long goalBit = to == TileGraph.NO_TILE ? 0 : 1L << graph.getCol(to);
+
+    while (steps < maxSteps)
+    {
+      nextStamp();
+      numNextWords = 0;
+      for (int i = 0; i < numFrontierWords; i++)
+      {
+        spread(frontierWords[i]);
+      }
+
+      // Keep only the tiles that weren't reached before, and drop the words
+      // that end up empty.
+      steps++;
+      int kept = 0;
+      for (int i = 0; i < numNextWords; i++)
+      {
+        int word = nextWords[i];
+        long bits = nextFrontier[word] & ~reached[word];
+        if (bits == 0)
+        {
+          continue;
+        }
+        nextFrontier[word] = bits;
+        reached[word] |= bits;
+        nextWords[kept++] = word;
+        if (recordDistances)
+        {
+          recordDistances(word, bits);
+        }
+      }
+      if (kept == 0)
+      {
+        return AStarSearch.NO_PATH;
+      }
+      if ((reached[goalWord] & goalBit) != 0)
+      {
+        return steps + 1;
+      }
+      long[] swapBits = frontier;
+      frontier = nextFrontier;
+      nextFrontier = swapBits;
+      int[] swapWords = frontierWords;
+      frontierWords = nextWords;
+      nextWords = swapWords;
+      numFrontierWords = kept;
+    }
+    return AStarSearch.OUT_OF_RANGE;
+  }
+
+  /**
+   * Moves the wavefront tiles in one word over by every move they can make,
+   * and adds them to the next wavefront. The moves are grouped by the row
+   * they lead to, so each word of the next wavefront is only added to once,
+   * plus once more for each tile that crosses into the word beside it.
+   */
+  private void spread(int word)
+  {
+    long bits = frontier[word];
+    int masks = word * 8;
+    int column = word % wordsPerRow;
+    for (int deltaRow = -1; deltaRow <= 1; deltaRow++)
+    {
+      long straight;
+      long right;
+      long left;
+      if (deltaRow == 0)
+      {
+        straight = 0;
+        right = bits & canMove[masks + MOVE_RIGHT];
+        left = bits & canMove[masks + MOVE_LEFT];
+      }
+      else if (deltaRow > 0)
+      {
+        straight = bits & canMove[masks + MOVE_DOWN];
+        right = bits & canMove[masks + MOVE_DOWN_RIGHT];
+        left = bits & canMove[masks + MOVE_DOWN_LEFT];
+      }
+      else
+      {
+        straight = bits & canMove[masks + MOVE_UP];
+        right = bits & canMove[masks + MOVE_UP_RIGHT];
+        left = bits & canMove[masks + MOVE_UP_LEFT];
+      }
+      int target = word + deltaRow * wordsPerRow;
+      addToNext(target, straight | (right << 1) | (left >>> 1));
+      // The tiles at the ends of the word move into the words beside it.
+      if (right < 0 && column + 1 < wordsPerRow)
+      {
+        addToNext(target + 1, 1L);
+      }
+      if ((left & 1L) != 0 && column > 0)
+      {
+        addToNext(target - 1, 1L << 63);
+      }
+    }
+  }
+
+  private void addToNext(int word, long bits)
+  {
+    if (bits == 0)
+    {
+      return;
+    }
+    if (wordStamp[word] != stamp)
+    {
+      wordStamp[word] = stamp;
+      nextFrontier[word] = 0;
+      nextWords[numNextWords++] = word;
+    }
+    nextFrontier[word] |= bits;
+  }
+
+  /**
+   * Starts a new step. A word of the next wavefront is cleared the first time
+   * something is added to it on a step, so only the words that are used are
+   * ever touched.
+   */
+  private void nextStamp()
+  {
+    stamp++;
+    if (stamp == Integer.MAX_VALUE)
+    {
+      Arrays.fill(wordStamp, 0);
+      stamp = 1;
+    }
+  }
+
+  private void recordDistances(int word, long bits)
+  {
+    int firstId = (word / wordsPerRow) * width + (word % wordsPerRow) * 64;
+    while (bits != 0)
+    {
+      distance[firstId + Long.numberOfTrailingZeros(bits)] = steps;
+      bits &= bits - 1;
+    }
+  }
+
+  private int wordIndex(int row, int col)
+  {
+    return row * wordsPerRow + (col >> 6);
+  }
+}
@@ -25,12 +25,33 @@ public class ProceduralMap
    * This is a byproduct of the procedural generation and is done to make the
    * calculations fors an art rooms and hallways simpler
    *
+   * The rooms and hallways the level was built from are kept on the tiles
+   * (Tile.room), so the neighbors and paths between them can still be used
+   * as a graph of rooms and doors once the map is finished.
+   *
    * @param rows
    * @param cols
    * @param difficulty
    * @return a newly generated level as a 2d array of Tile objects in rows x columns format
    */
   public static Tile[][] generateMap(int rows, int cols, int difficulty)
+  {
+    return generateMap(rows, cols, difficulty, new Random());
+  }
+
+  /**
+   * Generates a level the same way as generateMap(rows, cols, difficulty),
+   * but takes all of its random choices from the given Random. Two calls with
+   * Randoms made from the same seed give the same layout of walls, which is
+   * used to benchmark the pathfinding on the same boards every time.
+   *
+   * @param rows
+   * @param cols
+   * @param difficulty
+   * @param random - the source of every random choice made for the layout
+   * @return a newly generated level as a 2d array of Tile objects in rows x columns format
+   */
+  public static Tile[][] generateMap(int rows, int cols, int difficulty, Random random)
   {
     rows /= 4;  // divide by 4 for regions
     cols /= 4;
@@ -47,12 +68,12 @@ public class ProceduralMap
       }
     }
 
-    ArrayList<ArrayList<Rectangle>> regions = generateRegions(basicMap);
+    ArrayList<ArrayList<Rectangle>> regions = generateRegions(basicMap, random);
     constructNeighbors(basicMap, regions);
-    generatePaths(regions, difficulty);
+    generatePaths(regions, difficulty, random);
     if (DEBUG) printCollsionCases(regions);
     resizeRectangles(regions);
-    fillMap(map, regions, difficulty);
+    fillMap(map, regions, difficulty, random);
 
     return map;
   }
@@ -64,12 +85,12 @@ public class ProceduralMap
    * a collection of rooms and hallways within that region
    *
    * @param basicMap - a 2d map representing which rectangle is in which coordinate space
+   * @param random   - the source of the random choices
    * @return An Array of Rectangle collections where the first array represents the dimensions
    * of the proceeding regions
    */
-  private static ArrayList<ArrayList<Rectangle>> generateRegions(Rectangle[][] basicMap)
+  private static ArrayList<ArrayList<Rectangle>> generateRegions(Rectangle[][] basicMap, Random random)
   {
-    Random random = new Random();
     ArrayList<ArrayList<Rectangle>> regions = new ArrayList<>();
     
     /*
@@ -136,10 +157,10 @@ public class ProceduralMap
     regions.get(0).add(region3);
     regions.get(0).add(region4);
 
-    regions.add(getRectangles(basicMap, region1, 1));
-    regions.add(getRectangles(basicMap, region2, 2));
-    regions.add(getRectangles(basicMap, region3, 3));
-    regions.add(getRectangles(basicMap, region4, 4));
+    regions.add(getRectangles(basicMap, region1, 1, random));
+    regions.add(getRectangles(basicMap, region2, 2, random));
+    regions.add(getRectangles(basicMap, region3, 3, random));
+    regions.add(getRectangles(basicMap, region4, 4, random));
 
     if (DEBUG) printArray(basicMap);
 
@@ -209,13 +230,13 @@ public class ProceduralMap
    * @param basicMap - a map of rectangles to coordinates
    * @param bounds   - the bounding rectangle of the region
    * @param region   - an integer (1-4) representing the region
+   * @param random   - the source of the random choices
    * @return an arraylist of rectangles representing rooms in the given region
    */
-  private static ArrayList<Rectangle> getRectangles(Rectangle[][] basicMap, Rectangle bounds, int region)
+  private static ArrayList<Rectangle> getRectangles(Rectangle[][] basicMap, Rectangle bounds, int region, Random random)
   {
     ArrayList<Rectangle> rectangles = new ArrayList<>();
     ArrayList<Rectangle> splits = new ArrayList<>();
-    Random random = new Random();
     splits.add(new Rectangle(bounds.x, bounds.y, bounds.width, bounds.height)); //new rectangle to prevent pointer overlap
 
     while (!splits.isEmpty())
@@ -427,10 +448,11 @@ public class ProceduralMap
    * generates all of the internal region paths
    *
    * @param regions
+   * @param difficulty
+   * @param random - the source of the random choices
    */
-  private static void generatePaths(ArrayList<ArrayList<Rectangle>> regions, int difficulty)
+  private static void generatePaths(ArrayList<ArrayList<Rectangle>> regions, int difficulty, Random random)
   {
-    Random random = new Random();
 
     ArrayList<Rectangle> frontier = new ArrayList<>();
     ArrayList<Rectangle> visited = new ArrayList<>();
@@ -545,7 +567,7 @@ public class ProceduralMap
     }
   }
 
-  private static void fillMap(Tile[][] map, ArrayList<ArrayList<Rectangle>> regions, int difficulty)
+  private static void fillMap(Tile[][] map, ArrayList<ArrayList<Rectangle>> regions, int difficulty, Random random)
   {
     //left border wall
     for (int i = 0; i < map.length; i++)
@@ -570,6 +592,7 @@ public class ProceduralMap
             if ((x == r.x + r.width - 1) || (y == r.y + r.height - 1))
             {
               map[y + 1][x + 1] = new Tile(0, y + 1, x + 1, !r.isRoom); //this actually reflects the map about the x=y line
+              map[y + 1][x + 1].room = r;
             }
             else
             {
@@ -577,11 +600,12 @@ public class ProceduralMap
               if (x % 2 == 1 && y % 2 == 1 && r.isRoom)
               {
                 double chance = difficulty / 7d;
-                if (Math.random() < chance)
+                if (random.nextDouble() < chance)
                 {
                   map[y + 1][x + 1] = new Tile(0, y + 1, x + 1, !r.isRoom); //create obstical
                 }
               }
+              map[y + 1][x + 1].room = r;
             }
           }
         }
@@ -625,6 +649,8 @@ public class ProceduralMap
 
             map[y][path.x] = new Tile(r.region, y, path.x, !r.isRoom);
             map[y + 1][path.x] = new Tile(r.region, y + 1, path.x, !r.isRoom);
+            map[y][path.x].room = r;
+            map[y + 1][path.x].room = r;
           }
           if (path.y == r.y + r.height)
           {//on bottom of r
@@ -662,6 +688,8 @@ public class ProceduralMap
 
             map[path.y][x] = new Tile(r.region, path.y, x, !r.isRoom);
             map[path.y][x + 1] = new Tile(r.region, path.y, x + 1, !r.isRoom);
+            map[path.y][x].room = r;
+            map[path.y][x + 1].room = r;
           }
         }
       }
@@ -693,7 +721,6 @@ public class ProceduralMap
       }
     }
 
-    Random random = new Random();
     Rectangle exit;
     boolean first = random.nextBoolean();
 
@@ -39,6 +39,9 @@ public class Tile
   public boolean wallNE = false;
   public boolean wallSE = false;
   public boolean wallSW = false;
+  // The room or hallway from ProceduralMap that this tile is part of. The
+  // paths of the room lead to the rooms it has doors to.
+  public ProceduralMap.Rectangle room = null;
 
   /**
    * This constructor takes a integer argument for the type of the tile and
@@ -8,8 +8,6 @@ import entities.Player;
 import entities.Zombie;
 import game_engine.Attributes;
 import game_engine.Scenes;
-import graphing.GraphNode;
-import graphing.TileGraph;
 import gui.Main;
 import javafx.animation.AnimationTimer;
 import javafx.event.EventHandler;
@@ -61,7 +59,6 @@ public class ZombieBoardRenderer
   public static ArrayList<Rectangle> walls = new ArrayList<>();
   public static EntityManager entityManager;
   public static Group root;
-  boolean isWall;
 
   private static boolean playerL = false;
   private static boolean playerR = false;
@@ -90,7 +87,7 @@ public class ZombieBoardRenderer
    */
   public Scene zombieHouse2d(Stage primaryStage)
   {
-    entityManager = new EntityManager(scenes, root);
+    entityManager = new EntityManager(scenes);
     gameBoard = ProceduralMap.generateMap(Attributes.Map_Width, Attributes.Map_Height, 2);
     entityManager.player = new Player(20, 30);
     
@@ -195,80 +192,6 @@ public class ZombieBoardRenderer
           wallTile.setFill(Color.BLACK);
           walls.add(wallTile);
           entityManager.numTiles++;
-          isWall = true;
-        } else
-          isWall = false;
-        //Build the graph for zombie pathfinding.
-        if (col == 0 && row == 0)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col + 1][row],
-              gameBoard[col][row + 1], gameBoard[col + 1][row + 1], row, col,
-              isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (col == 0 && row == boardWidth - 1)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col + 1][row],
-              gameBoard[col][row - 1], gameBoard[col + 1][row - 1], row, col,
-              isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (col == boardHeight - 1 && row == 0)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col - 1][row],
-              gameBoard[col][row + 1], gameBoard[col - 1][row + 1], row, col,
-              isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (col == boardHeight - 1 && row == boardWidth - 1)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col - 1][row],
-              gameBoard[col][row - 1], gameBoard[col - 1][row - 1], row, col,
-              isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (row == 0 && col != 0 && col != boardHeight - 1)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col + 1][row],
-              gameBoard[col - 1][row], gameBoard[col][row + 1],
-              gameBoard[col + 1][row + 1], gameBoard[col - 1][row + 1], row,
-              col, isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (row == boardWidth - 1 && col != 0 && col != boardHeight - 1)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col + 1][row],
-              gameBoard[col - 1][row], gameBoard[col][row - 1],
-              gameBoard[col + 1][row - 1], gameBoard[col - 1][row - 1], row,
-              col, isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (col == 0 && row != 0 && row != boardWidth - 1)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col + 1][row],
-              gameBoard[col][row + 1], gameBoard[col][row - 1],
-              gameBoard[col + 1][row + 1], gameBoard[col + 1][row - 1], row,
-              col, isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (col == boardHeight - 1 && row != 0 && row != boardWidth - 1)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col][row + 1],
-              gameBoard[col - 1][row], gameBoard[col][row - 1],
-              gameBoard[col - 1][row + 1], gameBoard[col - 1][row - 1], row,
-              col, isWall, gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
-        }
-        if (col >= 1 && col < boardHeight - 1 && row >= 1
-            && row < boardWidth - 1)
-        {
-          GraphNode newNode = new GraphNode(gameBoard[col + 1][row],
-              gameBoard[col - 1][row], gameBoard[col][row - 1],
-              gameBoard[col][row + 1], gameBoard[col + 1][row - 1],
-              gameBoard[col - 1][row + 1], gameBoard[col - 1][row - 1],
-              gameBoard[col + 1][row + 1], row, col, isWall,
-              gameBoard[col][row]);
-          TileGraph.createGraph(newNode);
         }
         /* add props to 2D board - make visible */
         if (propCounter < numProps)
@@ -296,7 +219,9 @@ public class ZombieBoardRenderer
         }
       }
     }
-    
+    //Build the graph for zombie pathfinding.
+    entityManager.createGraph(gameBoard);
+
     // Add walls to map.
     for (int i = 0; i < entityManager.numTiles; i++)
     {
@@ -445,6 +370,8 @@ public class ZombieBoardRenderer
        * next decision update for that zombie, then move the zombie in a random
        * direction.
        */
+      entityManager.runTimers();
+      entityManager.deliverPathResults();
       for (Zombie zombie : entityManager.zombies)
       {
         zombie.tick2d();
@@ -454,6 +381,8 @@ public class ZombieBoardRenderer
           entityManager.startMasterZombie();
         }
       }
+      entityManager.runScheduledPaths();
+      drawZombies();
       if (!isPaused)
       {
         drawGameBoard();
@@ -462,4 +391,19 @@ public class ZombieBoardRenderer
       }
     }
   }
+
+  /**
+   * Moves the circle for each zombie to where the zombie is on the board.
+   */
+  private void drawZombies()
+  {
+    for (Zombie zombie : entityManager.zombies)
+    {
+      if (zombie.zombieCirc != null)
+      {
+        zombie.zombieCirc.setCenterX(zombie.xPos * cellSize);
+        zombie.zombieCirc.setCenterY(zombie.zPos * cellSize);
+      }
+    }
+  }
 }